@@ -4,6 +4,7 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.Range;
+import net.runelite.client.config.Units;
 
 @ConfigGroup("lootlogger")
 public interface LootLoggerConfig extends Config
@@ -105,4 +106,33 @@ public interface LootLoggerConfig extends Config
 					+ "<br><b>High Alchemy:</b> Calculate totals using the High Alchemy value"
 	)
 	default ItemValueTypes valueType() {return ItemValueTypes.GRAND_EXCHANGE;}
+
+	@ConfigItem(
+		position = 8,
+		keyName = "storageFormat",
+		name = "Storage Format",
+		description = "How loot data is stored on disk. Existing files are converted the next time they are used"
+					+ "<br>"
+					+ "<br><b>JSON Lines:</b> Human readable text files (.log)"
+					+ "<br><b>Compact binary:</b> Several times smaller and faster to load (.bin)"
+	)
+	default LootStorageFormat storageFormat() {return LootStorageFormat.JSON_LINES;}
+
+	@ConfigItem(
+		position = 9,
+		keyName = "rawParseThreshold",
+		name = "Raw Parsing Threshold",
+		description = "Loot files larger than this many kilobytes are parsed straight from their bytes when loaded instead of being streamed through Gson"
+	)
+	@Units(" KB")
+	default int rawParseThreshold() {return 1024;}
+
+	@ConfigItem(
+		position = 10,
+		keyName = "epochMillisDates",
+		name = "Store Dates as Timestamps",
+		description = "Stores the date of new JSON Lines records as a number instead of formatted text, which is faster to load"
+					+ "<br>Existing records are read either way, rewritten and converted files always use formatted text"
+	)
+	default boolean epochMillisDates() {return false;}
 }
@@ -13,9 +13,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -48,12 +57,16 @@ import net.runelite.client.util.Text;
 import net.runelite.http.api.loottracker.LootRecordType;
 import org.apache.commons.lang3.ArrayUtils;
 import thestonedturtle.lootlogger.data.BossTab;
+import thestonedturtle.lootlogger.data.ClueItemMapper;
 import thestonedturtle.lootlogger.data.KillCountNameMapper;
 import thestonedturtle.lootlogger.data.LootLog;
 import thestonedturtle.lootlogger.data.Pet;
 import thestonedturtle.lootlogger.data.UniqueItem;
+import thestonedturtle.lootlogger.localstorage.ItemMetadataCache;
+import thestonedturtle.lootlogger.localstorage.ItemNameDictionary;
 import thestonedturtle.lootlogger.localstorage.LTItemEntry;
 import thestonedturtle.lootlogger.localstorage.LTRecord;
+import thestonedturtle.lootlogger.localstorage.LTSummary;
 import thestonedturtle.lootlogger.localstorage.LootRecordWriter;
 import thestonedturtle.lootlogger.ui.LootLoggerPanel;
 
@@ -77,6 +90,8 @@ public class LootLoggerPlugin extends Plugin
 		"You have a funny feeling like you would have been followed...");
 
 	private static final int NMZ_MAP_REGION = 9033;
+	// Log files are loaded in parallel, the largest tabs have dozens of files
+	private static final int LOADER_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
 	public static final String SESSION_NAME = "Current Session Data";
 
@@ -103,11 +118,18 @@ public class LootLoggerPlugin extends Plugin
 
 	private LootLoggerPanel panel;
 	private NavigationButton navButton;
+	private ExecutorService loadExecutor;
+	private ExecutorService requestExecutor;
+	// Only accessed on the EDT
+	private Future<?> pendingLootLogRequest;
 
 	@Getter
 	private SetMultimap<LootRecordType, String> lootNames = HashMultimap.create();
 
 	private boolean prepared = false;
+	// Milliseconds from startup until the item metadata was ready, 0 until then
+	@Getter
+	private volatile long itemMetadataWarmupTime;
 	// Some pets aren't handled (skilling pets) so reset gotPet after a few ticks
 	private int petTicks = 0;
 	private boolean gotPet = false;
@@ -140,10 +162,25 @@ public class LootLoggerPlugin extends Plugin
 			clientToolbar.addNavigation(navButton);
 		}
 
+		loadExecutor = Executors.newFixedThreadPool(LOADER_THREADS, r ->
+		{
+			final Thread thread = new Thread(r, "LootLogger Loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// Waits on the loader pool and merges the results so neither the client thread nor the EDT is blocked
+		requestExecutor = Executors.newSingleThreadExecutor(r ->
+		{
+			final Thread thread = new Thread(r, "LootLogger Requests");
+			thread.setDaemon(true);
+			return thread;
+		});
+
 		// Attach necessary info from item manager on load, probably a better method
 		if (!prepared)
 		{
 			prepared = true;
+			final long warmupStart = System.nanoTime();
 			clientThread.invokeLater(() ->
 			{
 				switch (client.getGameState())
@@ -153,12 +190,16 @@ public class LootLoggerPlugin extends Plugin
 						return false;
 				}
 
-				UniqueItem.prepareUniqueItems(itemManager);
-				LootRecordWriter.prepareHaPriceMap(itemManager, client.getItemCount());
+				prepareItemMetadata(client.getRevision(), client.getItemCount(), warmupStart);
 				return true;
 			});
 		}
 
+		writer.setConversionExecutor(loadExecutor);
+		writer.setStorageFormat(config.storageFormat());
+		writer.setRawParseThreshold(config.rawParseThreshold() * 1024L);
+		writer.setEpochMillisDates(config.epochMillisDates());
+
 		if (client.getGameState().equals(GameState.LOGGED_IN) || client.getGameState().equals(GameState.LOADING))
 		{
 			updateWriterUsername();
@@ -171,6 +212,60 @@ public class LootLoggerPlugin extends Plugin
 		}
 	}
 
+	// Reads the item metadata snapshot off the client thread, it's only rebuilt from the item compositions if it's out of date
+	private void prepareItemMetadata(final int revision, final int itemCount, final long warmupStart)
+	{
+		executeLoad(() ->
+		{
+			final ItemMetadataCache cached = ItemMetadataCache.read(revision, itemCount, UniqueItem.getItemIds());
+			if (cached != null)
+			{
+				applyItemMetadata(cached, warmupStart, true);
+				return;
+			}
+
+			clientThread.invokeLater(ItemMetadataCache.build(itemManager, revision, itemCount, UniqueItem.getItemIds(), metadata ->
+				executeLoad(() ->
+				{
+					applyItemMetadata(metadata, warmupStart, false);
+					metadata.write();
+				})));
+		});
+	}
+
+	// Work is still handed over from the client thread after shutDown has stopped the loader pool
+	private void executeLoad(final Runnable task)
+	{
+		try
+		{
+			loadExecutor.execute(task);
+		}
+		catch (RejectedExecutionException e)
+		{
+			log.debug("Skipped loader task submitted after shutdown");
+		}
+	}
+
+	private void applyItemMetadata(final ItemMetadataCache metadata, final long warmupStart, final boolean cached)
+	{
+		LootRecordWriter.setHaPrices(metadata.getHaPrices());
+		ItemNameDictionary.prepareItemNames(metadata.getNames());
+		ClueItemMapper.prepareClueItemMap(metadata.getNames());
+		// The unique items are only ever updated on the client thread
+		clientThread.invokeLater(() ->
+		{
+			UniqueItem.prepareUniqueItems(metadata);
+			if (cached)
+			{
+				// The cached unique prices are as old as the snapshot
+				UniqueItem.refreshPrices(itemManager);
+			}
+		});
+
+		itemMetadataWarmupTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmupStart);
+		log.debug("Item metadata ready {}ms after startup, {}", itemMetadataWarmupTime, cached ? "loaded from cache" : "rebuilt from the item compositions");
+	}
+
 	@Override
 	protected void shutDown()
 	{
@@ -181,6 +276,16 @@ public class LootLoggerPlugin extends Plugin
 
 		gotPet = false;
 		petTicks = 0;
+		cancelLootLogRequest();
+		requestExecutor.shutdownNow();
+		writer.setConversionExecutor(null);
+		loadExecutor.shutdown();
+		// The metadata tasks may have been skipped by the stopped loader pool, prepare it again on the next startup
+		if (itemMetadataWarmupTime == 0)
+		{
+			prepared = false;
+		}
+		writer.shutDown();
 		writer.setName(null);
 	}
 
@@ -201,6 +306,21 @@ public class LootLoggerPlugin extends Plugin
 				}
 			}
 
+			if (event.getKey().equals("storageFormat"))
+			{
+				writer.setStorageFormat(config.storageFormat());
+			}
+
+			if (event.getKey().equals("rawParseThreshold"))
+			{
+				writer.setRawParseThreshold(config.rawParseThreshold() * 1024L);
+			}
+
+			if (event.getKey().equals("epochMillisDates"))
+			{
+				writer.setEpochMillisDates(config.epochMillisDates());
+			}
+
 			if (config.enableUI())
 			{
 				SwingUtilities.invokeLater(panel::refreshUI);
@@ -254,6 +374,22 @@ public class LootLoggerPlugin extends Plugin
 		{
 			SwingUtilities.invokeLater(panel::showSelectionView);
 		}
+
+		// The names come from the account's manifest, which won't include files changed while the plugin wasn't running
+		executeLoad(() ->
+		{
+			if (writer.reconcileKnownFileNames())
+			{
+				clientThread.invokeLater(() ->
+				{
+					lootNames = writer.getKnownFileNames();
+					if (config.enableUI())
+					{
+						SwingUtilities.invokeLater(panel::refreshSelectionView);
+					}
+				});
+			}
+		});
 	}
 
 	private Collection<LTItemEntry> convertToLTItemEntries(Collection<ItemStack> stacks)
@@ -267,7 +403,7 @@ public class LootLoggerPlugin extends Plugin
 		final int realId = c.getNote() == -1 ? c.getId() : c.getLinkedNoteId();
 		final int price = itemManager.getItemPrice(realId);
 		final long totalPrice = (long) price * qty;
-		return new LTItemEntry(c.getName(), id, qty, price, c.getHaPrice(), totalPrice);
+		return new LTItemEntry(ItemNameDictionary.intern(id, c.getName()), id, qty, price, c.getHaPrice(), totalPrice);
 	}
 
 	private void addRecord(final LTRecord record)
@@ -333,63 +469,160 @@ public class LootLoggerPlugin extends Plugin
 		addRecord(record);
 	}
 
-	public Collection<LTRecord> getDataByName(LootRecordType type, String name)
+	/**
+	 * Submits the load of every log file stored for this name, including any {@link BossTab} aliases, to the loader pool
+	 */
+	private List<Future<LootLog>> submitFileLogs(final LootRecordType type, final String name)
 	{
 		final BossTab tab = BossTab.getByName(name);
-		if (tab == null)
+		final Collection<String> fileNames = tab == null ? Collections.singletonList(name) : tab.getAliases();
+
+		final List<Future<LootLog>> futures = new ArrayList<>(fileNames.size());
+		for (final String fileName : fileNames)
 		{
-			return writer.loadLootTrackerRecords(type, name);
+			futures.add(loadExecutor.submit(() -> loadFileLog(type, fileName)));
 		}
 
-		final Collection<LTRecord> records = new ArrayList<>();
-		for (final String alias : tab.getAliases()) {
-			records.addAll(writer.loadLootTrackerRecords(type, alias));
+		return futures;
+	}
+
+	/**
+	 * Waits for each of the file logs to finish loading and merges them, in order, into a single {@link LootLog}
+	 */
+	private LootLog mergeFileLogs(final String name, final List<Future<LootLog>> futures)
+	{
+		final LootLog lootLog = new LootLog(config, name);
+		for (final Future<LootLog> future : futures)
+		{
+			try
+			{
+				lootLog.merge(future.get());
+			}
+			catch (ExecutionException e)
+			{
+				log.warn("Error loading loot data for {}", name, e.getCause());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		return lootLog;
+	}
+
+	/**
+	 * Loads the data stored in a single log file, only parsing the records appended after its stored summary.
+	 * The summary is updated afterwards if any new records were parsed.
+	 */
+	private LootLog loadFileLog(final LootRecordType type, final String fileName)
+	{
+		final LootLog log = new LootLog(config, fileName);
+		// Every step uses the same file so the stored summary always matches the file it was created from
+		final LootRecordWriter.ResolvedLootFile lootFile = writer.resolveLootFile(type, fileName);
+
+		long offset = 0;
+		final LTSummary summary = writer.loadLootTrackerSummary(type, fileName, lootFile);
+		if (summary != null)
+		{
+			log.addSummary(summary);
+			offset = summary.getOffset();
+		}
+
+		final long end = writer.loadLootTrackerRecords(lootFile, offset, log::addRecord);
+		if (end > offset)
+		{
+			writer.writeLootTrackerSummary(type, fileName, lootFile, log.toSummary(), end);
 		}
 
-		return records;
+		return log;
 	}
 
 	/**
-	 * Creates a loot log for this name and then attaches it to the UI when finished
+	 * Creates a loot log for this name off the client thread and passes it to the callback on the EDT when finished.
+	 * Any previous request that hasn't finished yet is cancelled.
 	 * @param name record name
+	 * @param callback receives the finished loot log on the EDT
 	 */
-	public void requestLootLog(final LootRecordType type, final String name)
+	public void requestLootLog(final LootRecordType type, final String name, final Consumer<LootLog> callback)
 	{
-		clientThread.invoke(() ->
+		cancelLootLogRequest();
+
+		if (name.equalsIgnoreCase(SESSION_NAME))
 		{
-			if (name.equalsIgnoreCase(SESSION_NAME))
+			// Session data is only modified on the client thread
+			clientThread.invoke(() ->
 			{
 				final LootLog log = new LootLog(config, Collections.emptyList(), name);
 				for (final String key : sessionData.keySet())
 				{
-					log.getMinionLogs().add(new LootLog(config, sessionData.get(key), key));
+					log.addMinionLog(new LootLog(config, sessionData.get(key), key));
 				}
 
-				SwingUtilities.invokeLater(() -> panel.useLog(log));
-				return;
+				SwingUtilities.invokeLater(() -> callback.accept(log));
+			});
+			return;
+		}
+
+		pendingLootLogRequest = requestExecutor.submit(() ->
+		{
+			final LootLog log = buildLootLog(type, name);
+			// Don't hand over a partially merged log if this request was cancelled while loading
+			if (!Thread.currentThread().isInterrupted())
+			{
+				SwingUtilities.invokeLater(() -> callback.accept(log));
 			}
+		});
+	}
+
+	/**
+	 * Cancels the pending loot log request, if any, so its result is never displayed
+	 */
+	public void cancelLootLogRequest()
+	{
+		if (pendingLootLogRequest != null)
+		{
+			pendingLootLogRequest.cancel(true);
+			pendingLootLogRequest = null;
+		}
+	}
 
-			final Collection<LTRecord> records = getDataByName(type, name);
-			final LootLog log = new LootLog(config, records, name);
+	private LootLog buildLootLog(final LootRecordType type, final String name)
+	{
+		// Submit every file before waiting on any so the tab loads in roughly the time of its largest file
+		final List<Future<LootLog>> futures = submitFileLogs(type, name);
+		final Map<String, List<Future<LootLog>>> minionFutures = new LinkedHashMap<>();
+		final BossTab tab = BossTab.getByName(name);
+		if (tab != null)
+		{
+			for (final String minion : tab.getMinions())
+			{
+				minionFutures.put(minion, submitFileLogs(tab.getMinionType(), minion));
+			}
+		}
+
+		try
+		{
+			final LootLog log = mergeFileLogs(name, futures);
 			if (log.getType().equals(LootRecordType.UNKNOWN))
 			{
 				log.setType(type);
 			}
 
-			final BossTab tab = BossTab.getByName(name);
-			if (tab != null && tab.getMinions().size() > 0)
+			for (final Map.Entry<String, List<Future<LootLog>>> entry : minionFutures.entrySet())
 			{
-				for (final String minion : tab.getMinions())
-				{
-					final Collection<LTRecord> minionRecords = getDataByName(tab.getMinionType(), minion);
-					final LootLog minionLog = new LootLog(config, minionRecords, minion);
-
-					log.getMinionLogs().add(minionLog);
-				}
+				log.addMinionLog(mergeFileLogs(entry.getKey(), entry.getValue()));
 			}
 
-			SwingUtilities.invokeLater(() -> panel.useLog(log));
-		});
+			return log;
+		}
+		finally
+		{
+			// Only does anything when the request was cancelled, files already being read are left to finish
+			futures.forEach(f -> f.cancel(false));
+			minionFutures.values().forEach(l -> l.forEach(f -> f.cancel(false)));
+		}
 	}
 
 	public boolean clearStoredDataByName(final LootRecordType type, final String name)
@@ -0,0 +1,21 @@
+package thestonedturtle.lootlogger;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum LootStorageFormat
+{
+	JSON_LINES("JSON Lines", ".log"),
+	BINARY("Compact binary", ".bin");
+
+	private final String name;
+	private final String fileExtension;
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.data;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.gameval.ItemID;
+import thestonedturtle.lootlogger.localstorage.ItemMetadataCache;
+
+/**
+ * Maps every clue scroll and reward casket to the single item id used for its tier, so all clues of a tier are
+ * consolidated together. The mapping only depends on the item name so it is computed once for every item id on startup.
+ */
+@Slf4j
+public class ClueItemMapper
+{
+	private static final Pattern CLUE_ITEM_TYPE_PATTERN = Pattern.compile("\\((\\w*)\\)");
+
+	// Index is the item id, value is the canonical item id. Null until prepared
+	private static volatile int[] canonicalIds;
+
+	private enum ClueType
+	{
+		SCROLL,
+		CASKET
+	}
+
+	private ClueItemMapper()
+	{
+	}
+
+	/**
+	 * @param id item id
+	 * @param name item name, only used if the mapping hasn't been prepared yet
+	 * @return the item id all items of this clue tier should be consolidated under, or the passed id
+	 */
+	public static int getCanonicalId(final int id, final String name)
+	{
+		final int[] ids = canonicalIds;
+		if (ids == null)
+		{
+			return mapByName(id, name);
+		}
+
+		return id >= 0 && id < ids.length ? ids[id] : id;
+	}
+
+	/**
+	 * @param names item names indexed by id, such as from the {@link ItemMetadataCache}
+	 */
+	public static void prepareClueItemMap(final String[] names)
+	{
+		final int[] ids = new int[names.length];
+		for (int id = 0; id < names.length; id++)
+		{
+			ids[id] = mapByName(id, names[id]);
+		}
+
+		canonicalIds = ids;
+		log.debug("Finished preparing clue item map");
+	}
+
+	private static int mapByName(final int id, @Nullable final String name)
+	{
+		if (name == null)
+		{
+			return id;
+		}
+
+		final String itemNameLowercased = name.toLowerCase();
+
+		ClueType type = null;
+		if (itemNameLowercased.startsWith("clue scroll"))
+		{
+			type = ClueType.SCROLL;
+		}
+		else if (itemNameLowercased.startsWith("casket "))
+		{
+			type = ClueType.CASKET;
+		}
+
+		if (type == null)
+		{
+			return id;
+		}
+
+		final Matcher m = CLUE_ITEM_TYPE_PATTERN.matcher(name);
+		if (!m.find())
+		{
+			return id;
+		}
+
+		switch (m.group(1).toLowerCase())
+		{
+			// Beginner and Master clues only have 1 ID
+			case "easy":
+				return type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_EASY_SIMPLE001 : ItemID.TRAIL_CLUE_EASY_MAP001_CASKET;
+			case "medium":
+				return type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_MEDIUM_SEXTANT001 : ItemID.TRAIL_CLUE_MEDIUM_SEXTANT001_CASKET;
+			case "hard":
+				return type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_HARD_MAP001 : ItemID.TRAIL_CLUE_HARD_SEXTANT001_CASKET;
+			case "elite":
+				return type.equals(ClueType.SCROLL) ? ItemID.TRAIL_ELITE_EMOTE_EXP1 : ItemID.TRAIL_ELITE_EMOTE_CASKET;
+			default:
+				return id;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.data;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from an int key to a non-negative int index, used to avoid boxing item ids.
+ * Keys map to an index into parallel arrays owned by the caller.
+ */
+public class IntIndexMap
+{
+	public static final int MISSING = -1;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] keys;
+	// MISSING marks an empty slot
+	private int[] values;
+	private int size;
+
+	public IntIndexMap()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntIndexMap(final int expectedSize)
+	{
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	/**
+	 * @return the index stored for the key or {@link #MISSING}
+	 */
+	public int get(final int key)
+	{
+		final int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (values[slot] != MISSING)
+		{
+			if (keys[slot] == key)
+			{
+				return values[slot];
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		return MISSING;
+	}
+
+	public boolean containsKey(final int key)
+	{
+		return get(key) != MISSING;
+	}
+
+	/**
+	 * Stores the index for the key, replacing any existing index
+	 * @param index must not be negative
+	 */
+	public void put(final int key, final int index)
+	{
+		if (index < 0)
+		{
+			throw new IllegalArgumentException("index must not be negative: " + index);
+		}
+
+		final int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (values[slot] != MISSING)
+		{
+			if (keys[slot] == key)
+			{
+				values[slot] = index;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = index;
+		// Keep the load factor at or below 0.5 so probe sequences stay short
+		if (++size * 2 > keys.length)
+		{
+			rehash(keys.length * 2);
+		}
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public void clear()
+	{
+		Arrays.fill(values, MISSING);
+		size = 0;
+	}
+
+	private void rehash(final int capacity)
+	{
+		final int[] oldKeys = keys;
+		final int[] oldValues = values;
+		allocate(capacity);
+		size = 0;
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldValues[i] != MISSING)
+			{
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(final int capacity)
+	{
+		keys = new int[capacity];
+		values = new int[capacity];
+		Arrays.fill(values, MISSING);
+	}
+
+	private static int tableSizeFor(final int expectedSize)
+	{
+		final int min = Math.max(DEFAULT_CAPACITY, expectedSize * 2);
+		return Integer.highestOneBit(min - 1) << 1;
+	}
+
+	private static int hash(final int key)
+	{
+		// Item ids are mostly sequential, spread them across the table
+		final int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -29,179 +29,362 @@ import com.google.common.collect.Multimap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import net.runelite.api.gameval.ItemID;
 import net.runelite.http.api.loottracker.LootRecordType;
 import thestonedturtle.lootlogger.ItemValueTypes;
 import thestonedturtle.lootlogger.LootLoggerConfig;
 import thestonedturtle.lootlogger.localstorage.LTItemEntry;
 import thestonedturtle.lootlogger.localstorage.LTRecord;
+import thestonedturtle.lootlogger.localstorage.LTSummary;
+import thestonedturtle.lootlogger.localstorage.LootRecordWriter;
 
 @Getter
 public class LootLog
 {
+	private static final ItemValueTypes[] VALUE_TYPES = ItemValueTypes.values();
+
 	private final LootLoggerConfig config;
 
-	private static final Pattern CLUE_ITEM_TYPE_PATTERN = Pattern.compile("\\((\\w*)\\)");
 	private final String name;
 	@Setter
 	private LootRecordType type;
-	// Store all records in case rewrite needs to happen
-	private final List<LTRecord> records = new ArrayList<>();
-	private final Map<Integer, LTItemEntry> consolidated = new HashMap<>();
-	private final Collection<UniqueItem> uniques;
+	// Total amount of records this log represents, including those consolidated from a summary
+	private int recordCount;
+	private int latestKillCount = -1;
+	@Getter(AccessLevel.NONE)
+	private final ConsolidatedItems consolidated = new ConsolidatedItems();
+	// Map view of the consolidated items, only created when requested and discarded whenever they change
+	@Getter(AccessLevel.NONE)
+	private Map<Integer, LTItemEntry> consolidatedView;
+	private final List<UniqueItem> uniques;
+	// Replaced once the linked note ids of the uniques are known, see refreshUniqueTracker
+	@Getter(AccessLevel.NONE)
+	private UniqueTracker uniqueTracker;
 
-	private final Set<Integer> uniqueIds = new HashSet<>();
 	private final Multimap<Integer, UniqueItem> uniquePositionMap = ArrayListMultimap.create();
 
 	// Store a LootLog for all minions
 	private final List<LootLog> minionLogs = new ArrayList<>();
+	// Log this is a minion of, receives every change to the running totals
+	@Getter(AccessLevel.NONE)
+	private LootLog parent;
+
+	// Running totals indexed by ItemValueTypes ordinal, updated as each drop is consolidated
+	@Getter(AccessLevel.NONE)
+	private final long[] totals = new long[VALUE_TYPES.length];
+	// Sum of the running totals of every minion log
+	@Getter(AccessLevel.NONE)
+	private final long[] minionTotals = new long[VALUE_TYPES.length];
+
+	public LootLog(LootLoggerConfig config, final String name)
+	{
+		this(config, Collections.emptyList(), name);
+	}
 
 	public LootLog(LootLoggerConfig config, final Collection<LTRecord> records, final String name)
 	{
         this.config = config;
 
-        this.records.addAll(records);
 		this.name = name;
+		this.type = LootRecordType.UNKNOWN;
 
-		if (records.size() == 0)
-		{
-			this.type = LootRecordType.UNKNOWN;
-		}
-		else
+		final Collection<UniqueItem> unsorted = UniqueItem.getUniquesForBoss(name);
+		uniques = unsorted.stream().sorted(Comparator.comparingInt(UniqueItem::getPosition)).collect(Collectors.toList());
+		uniqueTracker = new UniqueTracker(uniques);
+		for (final UniqueItem item : uniques)
 		{
-			final LTRecord record = this.records.get(0);
-			this.type = record.getType();
+			uniquePositionMap.put(item.getPosition(), item);
 		}
 
 		for (final LTRecord rec : records)
 		{
-			for (final LTItemEntry entry : rec.getDrops())
-			{
-				addItemEntryToMap(entry);
-			}
+			addRecord(rec);
 		}
-
-		final Collection<UniqueItem> unsorted = UniqueItem.getUniquesForBoss(name);
-		uniques = unsorted.stream().sorted(Comparator.comparingInt(UniqueItem::getPosition)).collect(Collectors.toList());
 	}
 
 	public synchronized void addRecord(final LTRecord record)
 	{
-		records.add(record);
+		// Logs created empty and then streamed into take the type of their first record
+		if (type == LootRecordType.UNKNOWN)
+		{
+			type = record.getType();
+		}
+
+		recordCount++;
+		latestKillCount = record.getKillCount();
 		for (final LTItemEntry entry : record.getDrops())
 		{
 			addItemEntryToMap(entry);
 		}
 	}
 
-	private enum ClueType
+	/**
+	 * Adds the previously consolidated data from a log file summary to this log
+	 */
+	public synchronized void addSummary(final LTSummary summary)
 	{
-		SCROLL,
-		CASKET
+		if (summary.getRecordCount() == 0)
+		{
+			return;
+		}
+
+		if (type == LootRecordType.UNKNOWN)
+		{
+			type = summary.getType();
+		}
+
+		recordCount += summary.getRecordCount();
+		latestKillCount = summary.getLastKillCount();
+		for (final LTSummary.Item item : summary.getItems())
+		{
+			final int haPrice = LootRecordWriter.getHaPrice(item.getId());
+			consolidate(item.getId(), item.getName(), item.getQuantity(), item.getPrice(), haPrice, item.getAveragedTotalPrice());
+		}
 	}
 
-	private void addItemEntryToMap(LTItemEntry item)
+	/**
+	 * Adds all data from the other log to this one, used for combining the logs of each {@link BossTab} alias.
+	 */
+	public synchronized void merge(final LootLog other)
 	{
-		final String itemNameLowercased = item.getName().toLowerCase();
+		if (other.getRecordCount() == 0)
+		{
+			return;
+		}
 
-		ClueType type = null;
-		if (itemNameLowercased.startsWith("clue scroll"))
+		if (type == LootRecordType.UNKNOWN)
 		{
-			type = ClueType.SCROLL;
+			type = other.getType();
 		}
-		else if(itemNameLowercased.startsWith("casket "))
+
+		recordCount += other.getRecordCount();
+		latestKillCount = other.getLatestKillCount();
+		final ConsolidatedItems items = other.consolidated;
+		synchronized (other)
 		{
-			type = ClueType.CASKET;
+			for (int i = 0; i < items.size; i++)
+			{
+				consolidate(items.ids[i], items.names[i], items.quantities[i], items.prices[i], items.haPrices[i], items.averagedTotals[i]);
+			}
 		}
+	}
 
-		if (type != null)
+	/**
+	 * Creates a summary of everything consolidated into this log so it can be stored alongside the log file
+	 */
+	public synchronized LTSummary toSummary()
+	{
+		final List<LTSummary.Item> items = new ArrayList<>(consolidated.size);
+		for (int i = 0; i < consolidated.size; i++)
 		{
-			Matcher m = CLUE_ITEM_TYPE_PATTERN.matcher(item.getName());
-			if (m.find())
+			items.add(new LTSummary.Item(consolidated.names[i], consolidated.ids[i], (int) consolidated.quantities[i], consolidated.prices[i], consolidated.averagedTotals[i]));
+		}
+
+		return new LTSummary(type, recordCount, latestKillCount, items);
+	}
+
+	private void addItemEntryToMap(final LTItemEntry item)
+	{
+		// Clue scrolls and caskets of the same tier are consolidated under a single id
+		final int id = ClueItemMapper.getCanonicalId(item.getId(), item.getName());
+		consolidate(id, item.getName(), item.getQuantity(), item.getPrice(), item.getHaPrice(), item.getAveragedTotalPrice());
+	}
+
+	private void consolidate(final int id, final String name, final long quantity, final long price, final int haPrice, final long averagedTotalPrice)
+	{
+		consolidatedView = null;
+
+		final long geDelta;
+		final long haDelta;
+		final int index = consolidated.index.get(id);
+		if (index != IntIndexMap.MISSING)
+		{
+			final long oldQuantity = consolidated.quantities[index];
+			final long oldPrice = consolidated.prices[index];
+			// Use the most recent price
+			consolidated.prices[index] = price;
+			consolidated.quantities[index] += quantity;
+			consolidated.averagedTotals[index] += averagedTotalPrice;
+
+			// The whole stack is revalued at the most recent price
+			geDelta = consolidated.quantities[index] * price - oldQuantity * oldPrice;
+			haDelta = quantity * consolidated.haPrices[index];
+		}
+		else
+		{
+			consolidated.add(id, name, quantity, price, haPrice, averagedTotalPrice);
+			geDelta = quantity * price;
+			haDelta = quantity * haPrice;
+		}
+
+		totals[ItemValueTypes.GRAND_EXCHANGE.ordinal()] += geDelta;
+		totals[ItemValueTypes.GRAND_EXCHANGE_AVERAGED.ordinal()] += averagedTotalPrice;
+		totals[ItemValueTypes.HIGH_ALCHEMY.ordinal()] += haDelta;
+		uniqueTracker.add(uniqueTracker.counts, id, quantity);
+		if (parent != null)
+		{
+			parent.minionConsolidated(this, id, quantity, geDelta, averagedTotalPrice, haDelta);
+		}
+	}
+
+	private synchronized void minionConsolidated(final LootLog minionLog, final int id, final long quantity,
+		final long geDelta, final long averagedDelta, final long haDelta)
+	{
+		minionTotals[ItemValueTypes.GRAND_EXCHANGE.ordinal()] += geDelta;
+		minionTotals[ItemValueTypes.GRAND_EXCHANGE_AVERAGED.ordinal()] += averagedDelta;
+		minionTotals[ItemValueTypes.HIGH_ALCHEMY.ordinal()] += haDelta;
+		// A minion that hasn't been counted by a rebuilt tracker yet is counted in full later on
+		if (uniqueTracker.countedMinions.contains(minionLog))
+		{
+			uniqueTracker.add(uniqueTracker.minionCounts, id, quantity);
+		}
+	}
+
+	/**
+	 * Adds the log as a minion of this log, its loot value is included in this log's running totals from now on
+	 */
+	public void addMinionLog(final LootLog minionLog)
+	{
+		// Minions lock their parent while holding their own lock, so the locks are only ever taken in that order
+		synchronized (minionLog)
+		{
+			synchronized (this)
 			{
-				final String result = m.group(1);
-				int id = item.getId();
-				switch (result.toLowerCase())
+				minionLog.parent = this;
+				minionLogs.add(minionLog);
+				for (int i = 0; i < minionTotals.length; i++)
 				{
-					// Beginner and Master clues only have 1 ID
-					case "easy":
-						id = type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_EASY_SIMPLE001 : ItemID.TRAIL_CLUE_EASY_MAP001_CASKET;
-						break;
-					case "medium":
-						id = type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_MEDIUM_SEXTANT001 : ItemID.TRAIL_CLUE_MEDIUM_SEXTANT001_CASKET;
-						break;
-					case "hard":
-						id = type.equals(ClueType.SCROLL) ? ItemID.TRAIL_CLUE_HARD_MAP001 : ItemID.TRAIL_CLUE_HARD_SEXTANT001_CASKET;
-						break;
-					case "elite":
-						id = type.equals(ClueType.SCROLL) ? ItemID.TRAIL_ELITE_EMOTE_EXP1 : ItemID.TRAIL_ELITE_EMOTE_CASKET;
-						break;
+					minionTotals[i] += minionLog.totals[i];
 				}
 
-				item = new LTItemEntry(item.getName(), id, item.getQuantity(), item.getPrice(), item.getHaPrice(), item.getQuantity() * item.getPrice());
+				countMinion(minionLog);
 			}
 		}
+	}
 
-		final LTItemEntry oldEntry = consolidated.get(item.getId());
-		if (oldEntry != null)
+	// Must hold the lock of both logs
+	private void countMinion(final LootLog minionLog)
+	{
+		if (!uniqueTracker.countedMinions.add(minionLog))
 		{
-			// Use the most recent price
-			oldEntry.setPrice(item.getPrice());
-			oldEntry.setQuantity(oldEntry.getQuantity() + item.getQuantity());
-			oldEntry.setAveragedTotalPrice(oldEntry.averagedTotalPrice + item.getAveragedTotalPrice());
+			return;
 		}
-		else
+
+		final ConsolidatedItems items = minionLog.consolidated;
+		for (int i = 0; i < items.size; i++)
 		{
-			// Create a new instance for consolidated records
-			consolidated.put(item.getId(), new LTItemEntry(item.getName(), item.getId(), item.getQuantity(), item.getPrice(), item.getHaPrice(), item.getQuantity() * item.getPrice()));
+			uniqueTracker.add(uniqueTracker.minionCounts, items.ids[i], items.quantities[i]);
 		}
 	}
 
-	@Nullable
-	public LootLog getMinionLog(final String name)
+	/**
+	 * The linked note ids of the uniques aren't known until the item metadata is ready, which can be after this log
+	 * started consolidating drops. Rebuilds the unique counts from the consolidated drops once they are known.
+	 */
+	private void refreshUniqueTracker()
 	{
-		for (final LootLog log : minionLogs)
+		final List<LootLog> minions;
+		synchronized (this)
 		{
-			if (log.getName().equalsIgnoreCase(name))
+			if (uniqueTracker.metadataVersion == UniqueItem.getMetadataVersion())
 			{
-				return log;
+				return;
 			}
+
+			uniqueTracker = new UniqueTracker(uniques);
+			for (int i = 0; i < consolidated.size; i++)
+			{
+				uniqueTracker.add(uniqueTracker.counts, consolidated.ids[i], consolidated.quantities[i]);
+			}
+			minions = new ArrayList<>(minionLogs);
 		}
 
-		return null;
+		for (final LootLog minionLog : minions)
+		{
+			synchronized (minionLog)
+			{
+				synchronized (this)
+				{
+					countMinion(minionLog);
+				}
+			}
+		}
 	}
 
-	public long getLootValue(boolean includeMinions, ItemValueTypes valueType)
+	/**
+	 * @return the item ids, including linked note and alternative ids, of every unique of this log
+	 */
+	public IntSet getUniqueIds()
 	{
-		long value = getConsolidated()
-			.values().stream()
-			.mapToLong(e -> e.getTotalByType(valueType))
-			.sum();
+		refreshUniqueTracker();
+		synchronized (this)
+		{
+			return uniqueTracker.ids;
+		}
+	}
 
-		if (includeMinions)
+	public List<LootLog> getMinionLogs()
+	{
+		return Collections.unmodifiableList(minionLogs);
+	}
+
+	/**
+	 * Every drop consolidated into this log keyed by item id.
+	 * Created on demand from the underlying primitive storage, prefer {@link #getConsolidatedQuantity(int)} in loops.
+	 */
+	public synchronized Map<Integer, LTItemEntry> getConsolidated()
+	{
+		if (consolidatedView == null)
 		{
-			for (final LootLog minionLog : minionLogs)
+			final Map<Integer, LTItemEntry> view = new LinkedHashMap<>(consolidated.size * 2);
+			for (int i = 0; i < consolidated.size; i++)
 			{
-				value += minionLog.getConsolidated()
-					.values().stream()
-					.mapToLong(e -> e.getTotalByType(valueType))
-					.sum();
+				view.put(consolidated.ids[i], consolidated.toEntry(i));
 			}
+			consolidatedView = Collections.unmodifiableMap(view);
 		}
 
-		return value;
+		return consolidatedView;
+	}
+
+	/**
+	 * @return the total quantity of the item consolidated into this log
+	 */
+	public synchronized long getConsolidatedQuantity(final int id)
+	{
+		final int index = consolidated.index.get(id);
+		return index == IntIndexMap.MISSING ? 0 : consolidated.quantities[index];
+	}
+
+	@Nullable
+	public LootLog getMinionLog(final String name)
+	{
+		for (final LootLog log : minionLogs)
+		{
+			if (log.getName().equalsIgnoreCase(name))
+			{
+				return log;
+			}
+		}
+
+		return null;
+	}
+
+	public synchronized long getLootValue(boolean includeMinions, ItemValueTypes valueType)
+	{
+		final int index = valueType.ordinal();
+		return includeMinions ? totals[index] + minionTotals[index] : totals[index];
 	}
 
 	public long getLootValue(boolean includeMinions)
@@ -219,39 +402,160 @@ public class LootLog
 		return getLootValue(config.includeMinions(), config.valueType());
 	}
 
-	// Loop over all UniqueItems and check how many the player has received as a drop for each
-	// Also add all Item IDs for uniques to a Set for easy hiding later on.
-	public static void recalculateUniques(final LootLog lootLog, final boolean includeMinions)
+	/**
+	 * Counts how many of each UniqueItem the player has received as a drop.
+	 * The snapshot is cached and only recreated once a unique has been dropped since the last call.
+	 */
+	public UniqueCounts getUniqueCounts(final boolean includeMinions)
+	{
+		refreshUniqueTracker();
+		synchronized (this)
+		{
+			return createUniqueCounts(includeMinions);
+		}
+	}
+
+	private UniqueCounts createUniqueCounts(final boolean includeMinions)
 	{
-		lootLog.getUniqueIds().clear();
-		lootLog.getUniquePositionMap().clear();
+		final boolean withMinions = includeMinions || name.equals(BossTab.SUPERIOR_SLAYER_MONSTERS.getName());
+		if (uniqueTracker.snapshot != null && !uniqueTracker.changed && withMinions == uniqueTracker.includeMinions)
+		{
+			return uniqueTracker.snapshot;
+		}
 
-		final Collection<LootLog> allLogs = new ArrayList<>();
-		allLogs.add(lootLog);
-		if (includeMinions || lootLog.getName().equals(BossTab.SUPERIOR_SLAYER_MONSTERS.getName())) {
-			allLogs.addAll(lootLog.getMinionLogs());
+		final int[] counts = UniqueCounts.newCountArray();
+		for (int i = 0; i < uniques.size(); i++)
+		{
+			final long qty = uniqueTracker.counts[i] + (withMinions ? uniqueTracker.minionCounts[i] : 0);
+			counts[uniques.get(i).ordinal()] = (int) qty;
 		}
 
-		for (final UniqueItem item : lootLog.getUniques())
+		uniqueTracker.snapshot = new UniqueCounts(counts);
+		uniqueTracker.changed = false;
+		uniqueTracker.includeMinions = withMinions;
+		return uniqueTracker.snapshot;
+	}
+
+	/**
+	 * Tracks how many of each of the log's uniques have been received, updated as each drop is consolidated.
+	 * Counts are indexed the same as {@link #uniques}.
+	 */
+	private static class UniqueTracker
+	{
+		// Item id -> index into slots, each slot lists the uniques the item id counts towards
+		private final IntIndexMap slotIndex = new IntIndexMap();
+		private final List<int[]> slots = new ArrayList<>();
+		private final IntSet ids = new IntSet();
+		private final long[] counts;
+		private final long[] minionCounts;
+		// Minion logs whose drops are included in minionCounts
+		private final Set<LootLog> countedMinions = new HashSet<>();
+		// UniqueItem metadata version the linked ids were read from
+		private final int metadataVersion;
+		// Set when a unique has been dropped since the snapshot was created
+		private boolean changed;
+		private UniqueCounts snapshot;
+		private boolean includeMinions;
+
+		private UniqueTracker(final List<UniqueItem> uniques)
 		{
-			final List<Integer> ids = Arrays.stream(item.getAlternativeIds()).boxed().collect(Collectors.toList());
-			ids.add(item.getItemID());
-			ids.add(item.getLinkedID());
+			counts = new long[uniques.size()];
+			minionCounts = new long[uniques.size()];
+			// Read before the linked ids so a concurrent update is picked up by the next refresh
+			metadataVersion = UniqueItem.getMetadataVersion();
 
-			int qty = 0;
-			for (final int id : ids)
+			for (int i = 0; i < uniques.size(); i++)
 			{
-				lootLog.getUniqueIds().add(id);
-
-				for (final LootLog log : allLogs)
+				final UniqueItem item = uniques.get(i);
+				addId(item.getItemID(), i);
+				// Unknown until the item metadata is ready
+				if (item.getLinkedID() > 0)
 				{
-					final LTItemEntry entry = log.getConsolidated().get(id);
-					qty += (entry == null ? 0 : entry.getQuantity());
+					addId(item.getLinkedID(), i);
+				}
+				for (final int id : item.getAlternativeIds())
+				{
+					addId(id, i);
 				}
 			}
+		}
 
-			item.setQty(qty);
-			lootLog.getUniquePositionMap().put(item.getPosition(), item);
+		private void addId(final int id, final int unique)
+		{
+			ids.add(id);
+			final int slot = slotIndex.get(id);
+			if (slot == IntIndexMap.MISSING)
+			{
+				slotIndex.put(id, slots.size());
+				slots.add(new int[]{unique});
+				return;
+			}
+
+			final int[] old = slots.get(slot);
+			final int[] updated = Arrays.copyOf(old, old.length + 1);
+			updated[old.length] = unique;
+			slots.set(slot, updated);
+		}
+
+		private void add(final long[] target, final int id, final long quantity)
+		{
+			final int slot = slotIndex.get(id);
+			if (slot == IntIndexMap.MISSING || quantity == 0)
+			{
+				return;
+			}
+
+			for (final int unique : slots.get(slot))
+			{
+				target[unique] += quantity;
+				changed = true;
+			}
+		}
+	}
+
+	/**
+	 * Consolidated drops stored in parallel arrays, indexed by item id through an {@link IntIndexMap}
+	 */
+	private static class ConsolidatedItems
+	{
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final IntIndexMap index = new IntIndexMap();
+		private int size;
+		private int[] ids = new int[INITIAL_CAPACITY];
+		private String[] names = new String[INITIAL_CAPACITY];
+		private long[] quantities = new long[INITIAL_CAPACITY];
+		// Price of item at most recent drop
+		private long[] prices = new long[INITIAL_CAPACITY];
+		private int[] haPrices = new int[INITIAL_CAPACITY];
+		private long[] averagedTotals = new long[INITIAL_CAPACITY];
+
+		private void add(final int id, final String name, final long quantity, final long price, final int haPrice, final long averagedTotalPrice)
+		{
+			if (size == ids.length)
+			{
+				final int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				names = Arrays.copyOf(names, capacity);
+				quantities = Arrays.copyOf(quantities, capacity);
+				prices = Arrays.copyOf(prices, capacity);
+				haPrices = Arrays.copyOf(haPrices, capacity);
+				averagedTotals = Arrays.copyOf(averagedTotals, capacity);
+			}
+
+			ids[size] = id;
+			names[size] = name;
+			quantities[size] = quantity;
+			prices[size] = price;
+			haPrices[size] = haPrice;
+			averagedTotals[size] = averagedTotalPrice;
+			index.put(id, size);
+			size++;
+		}
+
+		private LTItemEntry toEntry(final int i)
+		{
+			return new LTItemEntry(names[i], ids[i], (int) quantities[i], prices[i], haPrices[i], averagedTotals[i]);
 		}
 	}
 }
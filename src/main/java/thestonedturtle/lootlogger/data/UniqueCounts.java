@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.data;
+
+import java.util.Collection;
+
+/**
+ * Immutable snapshot of how many of each {@link UniqueItem} a {@link LootLog} has received, indexed by ordinal.
+ * Snapshots are never modified after creation so they can be shared between threads.
+ */
+public final class UniqueCounts
+{
+	private static final int UNIQUE_ITEM_COUNT = UniqueItem.values().length;
+
+	public static final UniqueCounts EMPTY = new UniqueCounts(new int[UNIQUE_ITEM_COUNT]);
+
+	private final int[] counts;
+
+	// The array is owned by the snapshot and must not be modified afterwards
+	UniqueCounts(final int[] counts)
+	{
+		this.counts = counts;
+	}
+
+	static int[] newCountArray()
+	{
+		return new int[UNIQUE_ITEM_COUNT];
+	}
+
+	public int get(final UniqueItem item)
+	{
+		return counts[item.ordinal()];
+	}
+
+	/**
+	 * @return true if any of the items has a different count in the other snapshot
+	 */
+	public boolean differs(final UniqueCounts other, final Collection<UniqueItem> items)
+	{
+		for (final UniqueItem item : items)
+		{
+			if (get(item) != other.get(item))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
@@ -29,10 +29,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
-import net.runelite.api.ItemComposition;
 import net.runelite.api.gameval.ItemID;
 import net.runelite.client.game.ItemManager;
+import thestonedturtle.lootlogger.localstorage.ItemMetadataCache;
 
 @RequiredArgsConstructor
 @Getter
@@ -1117,13 +1116,13 @@ public enum UniqueItem
 	private final String[] bosses;
 	private final int position;
 	private final int[] alternativeIds;
-	private String name;
-	private int price;
-	private int linkedID;
+	// Only written on the client thread, read from the loader threads and the EDT
+	private volatile String name;
+	private volatile int price;
+	private volatile int linkedID;
 
-	@Setter
-	// Used to store the qty being displayed on the sprite
-	private int qty;
+	// Incremented each time the linked ids are updated from the item metadata
+	private static volatile int metadataVersion;
 
 	private static final ImmutableMultimap<String, UniqueItem> BOSS_MAP;
 	static
@@ -1192,19 +1191,52 @@ public enum UniqueItem
 		this.bosses = bosses;
 	}
 
-	public static void prepareUniqueItems(final ItemManager itemManager)
+	/**
+	 * @return the distinct item ids of every unique item
+	 */
+	public static int[] getItemIds()
+	{
+		return Arrays.stream(values()).mapToInt(UniqueItem::getItemID).distinct().toArray();
+	}
+
+	/**
+	 * Fills in the name, linked note id and price of every unique item from the snapshot.
+	 * The prices are as old as the snapshot, see {@link #refreshPrices(ItemManager)}.
+	 * Must be called on the client thread.
+	 */
+	public static void prepareUniqueItems(final ItemMetadataCache metadata)
+	{
+		for (final UniqueItem item : values())
+		{
+			item.name = metadata.getName(item.getItemID());
+			item.linkedID = metadata.getLinkedId(item.getItemID());
+			item.price = metadata.getUniquePrice(item.getItemID());
+		}
+
+		metadataVersion++;
+	}
+
+	/**
+	 * @return a value which changes whenever the linked ids are updated, see {@link #prepareUniqueItems(ItemMetadataCache)}
+	 */
+	public static int getMetadataVersion()
+	{
+		return metadataVersion;
+	}
+
+	/**
+	 * Updates the prices of every unique item, keeping the previous price for items without a known price yet.
+	 * Must be called on the client thread.
+	 */
+	public static void refreshPrices(final ItemManager itemManager)
 	{
 		for (final UniqueItem item : values())
 		{
-			if (item.getName() != null)
+			final int price = itemManager.getItemPrice(item.getItemID());
+			if (price > 0)
 			{
-				return;
+				item.price = price;
 			}
-
-			final ItemComposition c = itemManager.getItemComposition(item.getItemID());
-			item.name = c.getName();
-			item.linkedID = c.getLinkedNoteId();
-			item.price = itemManager.getItemPrice(c.getId());
 		}
 	}
 
@@ -0,0 +1,533 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Compact binary alternative to the JSON Lines format.
+ * <p>
+ * Files start with a {@link #MAGIC} and {@link #VERSION} header followed by blocks of `tag, varint length, payload`.
+ * Every string (record names, types and item names) is stored once in a string block, which appends it to the
+ * file's string table, and is referenced by its table index afterwards. Numbers are (zigzag) varints and dates are
+ * stored as epoch milliseconds. Unknown block tags are skipped so newer versions can add blocks.
+ * Records are decoded within the bounds of their block, a corrupt record is skipped without affecting the rest of the file.
+ */
+@Slf4j
+final class BinaryRecordFormat
+{
+	private static final byte[] MAGIC = {'L', 'T', 'L', 'B'};
+	private static final int VERSION = 1;
+	static final int HEADER_SIZE = MAGIC.length + 1;
+
+	private static final int TAG_STRING = 1;
+	private static final int TAG_RECORD = 2;
+
+	private static final int FLAG_DATE = 1;
+
+	private BinaryRecordFormat()
+	{
+	}
+
+	/**
+	 * Strings stored in a single binary file, in the order they were defined
+	 */
+	static class StringTable
+	{
+		private final Map<String, Integer> indexes = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+
+		private void add(final String s)
+		{
+			indexes.put(s, strings.size());
+			strings.add(s);
+		}
+
+		@Nullable
+		private String get(final int index) throws IOException
+		{
+			// 0 is reserved for null values
+			if (index == 0)
+			{
+				return null;
+			}
+
+			if (index > strings.size())
+			{
+				throw new IOException("Undefined string index " + index);
+			}
+
+			return strings.get(index - 1);
+		}
+	}
+
+	/**
+	 * Result of scanning a binary file
+	 */
+	static class ReadResult
+	{
+		final StringTable strings = new StringTable();
+		// End of the last complete block, anything after it was only partially written
+		long validLength;
+	}
+
+	static byte[] header()
+	{
+		final byte[] header = new byte[HEADER_SIZE];
+		System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+		header[MAGIC.length] = VERSION;
+		return header;
+	}
+
+	/**
+	 * Encodes the record as a block, preceded by string blocks for any strings the table doesn't contain yet.
+	 * Those strings are added to the table so it matches the file once the returned bytes are appended.
+	 */
+	static byte[] encode(final LTRecord record, final StringTable table)
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+		writeVarInt(payload, stringIndex(record.getName(), table, out));
+		writeVarInt(payload, zigzag(record.getLevel()));
+		writeVarInt(payload, zigzag(record.getKillCount()));
+		writeVarInt(payload, stringIndex(record.getType() == null ? null : record.getType().name(), table, out));
+
+		final Date date = record.getDate();
+		payload.write(date == null ? 0 : FLAG_DATE);
+		if (date != null)
+		{
+			writeVarLong(payload, zigzag(date.getTime()));
+		}
+
+		// JSON records can have null drops, which are stored as no drops at all
+		final Collection<LTItemEntry> drops = record.getDrops() == null ? Collections.emptyList() : record.getDrops();
+		writeVarInt(payload, drops.size());
+		for (final LTItemEntry entry : drops)
+		{
+			writeVarInt(payload, stringIndex(entry.getName(), table, out));
+			writeVarInt(payload, zigzag(entry.getId()));
+			writeVarInt(payload, zigzag(entry.getQuantity()));
+			writeVarLong(payload, zigzag(entry.getPrice()));
+		}
+
+		writeBlock(out, TAG_RECORD, payload.toByteArray());
+		return out.toByteArray();
+	}
+
+	// Returns the table index for this string, defining it first if necessary
+	private static int stringIndex(@Nullable final String s, final StringTable table, final ByteArrayOutputStream out)
+	{
+		if (s == null)
+		{
+			return 0;
+		}
+
+		Integer index = table.indexes.get(s);
+		if (index == null)
+		{
+			index = table.strings.size();
+			table.add(s);
+			writeBlock(out, TAG_STRING, s.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return index + 1;
+	}
+
+	/**
+	 * Reads every block in the buffer, which should contain an entire binary file.
+	 * String blocks are always read as later records depend on them, records are only decoded once the offset is reached.
+	 * @param offset byte offset of the first record to decode, must be the end of a block or 0
+	 * @param consumer receives the decoded records or null if only the string table is wanted
+	 */
+	static ReadResult read(final ByteBuffer buffer, final long offset, @Nullable final Consumer<LTRecord> consumer) throws IOException
+	{
+		final ByteBuffer file = buffer.slice();
+		return read(new BlockSource(null, file, file.remaining()), offset, consumer);
+	}
+
+	/**
+	 * Reads every block of the file up to its current size, refilling the buffer from the channel as it goes.
+	 * String blocks are always read as later records depend on them. Record blocks before the offset are skipped over
+	 * without being decoded, and any part of them that isn't in the buffer already is never read.
+	 * @param buffer reused for reading, its contents are discarded. Blocks larger than it are read into their own buffer
+	 * @param offset byte offset of the first record to decode, must be the end of a block or 0
+	 * @param consumer receives the decoded records or null if only the string table is wanted
+	 */
+	static ReadResult read(final FileChannel channel, final ByteBuffer buffer, final long offset, @Nullable final Consumer<LTRecord> consumer) throws IOException
+	{
+		buffer.clear();
+		buffer.limit(0);
+		return read(new BlockSource(channel, buffer, channel.size()), offset, consumer);
+	}
+
+	private static ReadResult read(final BlockSource source, final long offset, @Nullable final Consumer<LTRecord> consumer) throws IOException
+	{
+		readHeader(source.fill(HEADER_SIZE));
+
+		final ReadResult result = new ReadResult();
+		result.validLength = source.position();
+		while (source.position() < source.length)
+		{
+			final long blockStart = source.position();
+			// A tag followed by a varint length of at most 5 bytes
+			final ByteBuffer header = source.fill(6);
+			final int tag = header.get() & 0xFF;
+			final int length;
+			try
+			{
+				length = readVarInt(header);
+			}
+			catch (IOException e)
+			{
+				break;
+			}
+
+			final long end = source.position() + length;
+			if (length < 0 || end > source.length)
+			{
+				// Partially written block at the end of the file
+				break;
+			}
+
+			switch (tag)
+			{
+				case TAG_STRING:
+				{
+					final byte[] bytes = new byte[length];
+					source.block(length).get(bytes);
+					result.strings.add(new String(bytes, StandardCharsets.UTF_8));
+					break;
+				}
+				case TAG_RECORD:
+					if (consumer != null && blockStart >= offset)
+					{
+						final ByteBuffer block = source.block(length);
+						final LTRecord record = readRecord(block, block.position() + length, result.strings, blockStart);
+						if (record != null)
+						{
+							consumer.accept(record);
+						}
+					}
+					break;
+				default:
+					break;
+			}
+
+			source.seek(end);
+			result.validLength = end;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Window of a binary file held in a buffer. Without a channel the buffer has to contain the entire file.
+	 */
+	private static class BlockSource
+	{
+		@Nullable
+		private final FileChannel channel;
+		private final ByteBuffer buffer;
+		private final long length;
+		// File position of the buffer's limit
+		private long readPosition;
+
+		private BlockSource(@Nullable final FileChannel channel, final ByteBuffer buffer, final long length)
+		{
+			this.channel = channel;
+			this.buffer = buffer;
+			this.length = length;
+			this.readPosition = buffer.limit();
+		}
+
+		// File position of the buffer's position
+		private long position()
+		{
+			return readPosition - buffer.remaining();
+		}
+
+		/**
+		 * Makes at least the next count bytes available in the buffer, fewer if the file ends before them
+		 * @param count must not exceed the capacity of the buffer
+		 */
+		private ByteBuffer fill(final int count) throws IOException
+		{
+			if (channel == null || buffer.remaining() >= Math.min(count, length - position()))
+			{
+				return buffer;
+			}
+
+			buffer.compact();
+			buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + length - readPosition));
+			readPosition += readFully(channel, buffer, readPosition);
+			buffer.flip();
+			return buffer;
+		}
+
+		// Returns a buffer positioned at the next count bytes, which have to be within the file
+		private ByteBuffer block(final int count) throws IOException
+		{
+			if (channel == null || count <= buffer.capacity())
+			{
+				return fill(count);
+			}
+
+			final long start = position();
+			final ByteBuffer block = ByteBuffer.allocate(count);
+			readFully(channel, block, start);
+			block.flip();
+
+			buffer.position(buffer.limit());
+			readPosition = start + count;
+			return block;
+		}
+
+		private void seek(final long position)
+		{
+			final long skip = position - position();
+			if (skip <= buffer.remaining())
+			{
+				buffer.position(buffer.position() + (int) skip);
+				return;
+			}
+
+			// Everything up to the position is skipped without being read
+			buffer.position(buffer.limit());
+			readPosition = position;
+		}
+	}
+
+	// Reads until the buffer is full, returning the amount of bytes read
+	private static int readFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException
+	{
+		int total = 0;
+		while (buffer.hasRemaining())
+		{
+			final int read = channel.read(buffer, position + total);
+			if (read < 0)
+			{
+				throw new EOFException("Loot file ended while it was being read");
+			}
+			total += read;
+		}
+
+		return total;
+	}
+
+	private static void readHeader(final ByteBuffer buffer) throws IOException
+	{
+		if (buffer.remaining() < HEADER_SIZE)
+		{
+			throw new IOException("Missing binary loot file header");
+		}
+
+		for (final byte b : MAGIC)
+		{
+			if (buffer.get() != b)
+			{
+				throw new IOException("Not a binary loot file");
+			}
+		}
+
+		final int version = buffer.get();
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported binary loot file version " + version);
+		}
+	}
+
+	// Decodes the record without reading past the end of its block, a corrupt block is logged and skipped
+	@Nullable
+	private static LTRecord readRecord(final ByteBuffer buffer, final int end, final StringTable strings, final long blockStart)
+	{
+		final ByteBuffer block = buffer.duplicate();
+		block.limit(end);
+		try
+		{
+			return readRecord(block, strings);
+		}
+		catch (IOException | BufferUnderflowException e)
+		{
+			log.warn("Skipping unreadable loot record at byte {}: {}", blockStart, e.getMessage());
+			return null;
+		}
+	}
+
+	private static LTRecord readRecord(final ByteBuffer buffer, final StringTable strings) throws IOException
+	{
+		final String name = strings.get(readVarInt(buffer));
+		final int level = unzigzag(readVarInt(buffer));
+		final int killCount = unzigzag(readVarInt(buffer));
+		final LootRecordType type = parseType(strings.get(readVarInt(buffer)));
+
+		final int flags = buffer.get();
+		final Date date = (flags & FLAG_DATE) == 0 ? null : new Date(unzigzag(readVarLong(buffer)));
+
+		final int dropCount = readVarInt(buffer);
+		// Every drop takes at least one byte per field
+		if (dropCount < 0 || dropCount > buffer.remaining() / 4)
+		{
+			throw new IOException("Invalid drop count " + dropCount);
+		}
+
+		final List<LTItemEntry> drops = new ArrayList<>(dropCount);
+		for (int i = 0; i < dropCount; i++)
+		{
+			final String itemName = strings.get(readVarInt(buffer));
+			final int id = unzigzag(readVarInt(buffer));
+			final int quantity = unzigzag(readVarInt(buffer));
+			final long price = unzigzag(readVarLong(buffer));
+			drops.add(new LTItemEntry(ItemNameDictionary.intern(id, itemName), id, quantity, price, LootRecordWriter.getHaPrice(id), price * quantity));
+		}
+
+		return new LTRecord(name, level, killCount, type, drops, date);
+	}
+
+	@Nullable
+	private static LootRecordType parseType(@Nullable final String type)
+	{
+		if (type == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return LootRecordType.valueOf(type);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Matches how Gson handles enum values it doesn't know about
+			return null;
+		}
+	}
+
+	private static void writeBlock(final ByteArrayOutputStream out, final int tag, final byte[] payload)
+	{
+		out.write(tag);
+		writeVarInt(out, payload.length);
+		out.write(payload, 0, payload.length);
+	}
+
+	private static int zigzag(final int value)
+	{
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static long zigzag(final long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static int unzigzag(final int value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static long unzigzag(final long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarInt(final ByteArrayOutputStream out, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static void writeVarLong(final ByteArrayOutputStream out, long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static int readVarInt(final ByteBuffer buffer) throws IOException
+	{
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7)
+		{
+			if (!buffer.hasRemaining())
+			{
+				throw new IOException("Truncated varint");
+			}
+
+			final byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varint");
+	}
+
+	private static long readVarLong(final ByteBuffer buffer) throws IOException
+	{
+		long value = 0;
+		for (int shift = 0; shift < 70; shift += 7)
+		{
+			if (!buffer.hasRemaining())
+			{
+				throw new IOException("Truncated varint");
+			}
+
+			final byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varint");
+	}
+}
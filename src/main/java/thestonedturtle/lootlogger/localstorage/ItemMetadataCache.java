@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.ItemComposition;
+import net.runelite.client.callback.ClientThread;
+import net.runelite.client.game.ItemManager;
+import thestonedturtle.lootlogger.data.IntIndexMap;
+import static net.runelite.client.RuneLite.RUNELITE_DIR;
+
+/**
+ * Snapshot of the item data derived from the item compositions, persisted so it doesn't have to be rebuilt from every
+ * composition on each startup. Holds the name and HA price of every item, along with the linked note id and price
+ * of the unique items.
+ * The snapshot is tied to the client revision, item count and set of unique items, and is also rebuilt once it is a week old
+ * as the weekly game updates can change item data without changing either of those.
+ */
+@Slf4j
+public class ItemMetadataCache
+{
+	private static final File CACHE_FILE = new File(new File(RUNELITE_DIR, "loots"), "item-metadata.cache");
+	private static final String TEMP_EXTENSION = ".tmp";
+	// "LLIM"
+	private static final int MAGIC = 0x4C4C494D;
+	private static final int VERSION = 3;
+	private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(7);
+	// Amount of item compositions read per client tick while building the snapshot
+	private static final int CHUNK_SIZE = 4096;
+
+	private final int revision;
+	private final int itemCount;
+	// Indexed by item id
+	@Getter
+	private final int[] haPrices;
+	// Indexed by item id, null for unassigned ids
+	@Getter
+	private final String[] names;
+	// Parallel arrays for the unique items, looked up through the unique index
+	private final int[] uniqueIds;
+	private final int[] uniqueLinkedIds;
+	private final int[] uniquePrices;
+	private final IntIndexMap uniqueIndex;
+
+	private ItemMetadataCache(final int revision, final int itemCount, final int[] haPrices, final String[] names,
+		final int[] uniqueIds, final int[] uniqueLinkedIds, final int[] uniquePrices)
+	{
+		this.revision = revision;
+		this.itemCount = itemCount;
+		this.haPrices = haPrices;
+		this.names = names;
+		this.uniqueIds = uniqueIds;
+		this.uniqueLinkedIds = uniqueLinkedIds;
+		this.uniquePrices = uniquePrices;
+		this.uniqueIndex = new IntIndexMap(uniqueIds.length);
+		for (int i = 0; i < uniqueIds.length; i++)
+		{
+			uniqueIndex.put(uniqueIds[i], i);
+		}
+	}
+
+	@Nullable
+	public String getName(final int id)
+	{
+		return id >= 0 && id < names.length ? names[id] : null;
+	}
+
+	/**
+	 * @return the linked note id of this unique item or -1 if it isn't known
+	 */
+	public int getLinkedId(final int id)
+	{
+		final int index = uniqueIndex.get(id);
+		return index == IntIndexMap.MISSING ? -1 : uniqueLinkedIds[index];
+	}
+
+	/**
+	 * @return the price of this unique item when the snapshot was built, or 0 if it isn't known
+	 */
+	public int getUniquePrice(final int id)
+	{
+		final int index = uniqueIndex.get(id);
+		return index == IntIndexMap.MISSING ? 0 : uniquePrices[index];
+	}
+
+	/**
+	 * Builds the snapshot from the item compositions a chunk of items at a time so a single client tick isn't
+	 * held up by every item. Meant for {@link ClientThread#invokeLater(BooleanSupplier)}, which runs it until it returns true.
+	 * @param uniqueItemIds items whose linked note id and price should be stored
+	 * @param onBuilt receives the snapshot once every item has been read
+	 */
+	public static BooleanSupplier build(final ItemManager itemManager, final int revision, final int itemCount,
+		final int[] uniqueItemIds, final Consumer<ItemMetadataCache> onBuilt)
+	{
+		final int[] haPrices = new int[itemCount];
+		final String[] names = new String[itemCount];
+		final int[] nextId = {0};
+		return () ->
+		{
+			final int end = Math.min(nextId[0] + CHUNK_SIZE, itemCount);
+			for (int id = nextId[0]; id < end; id++)
+			{
+				final ItemComposition c = itemManager.getItemComposition(id);
+				// Invalid/unassigned ids are named "null" and have a HA price of 0
+				haPrices[id] = c.getHaPrice();
+				names[id] = "null".equals(c.getName()) ? null : c.getName();
+			}
+
+			nextId[0] = end;
+			if (end < itemCount)
+			{
+				return false;
+			}
+
+			final int[] linkedIds = new int[uniqueItemIds.length];
+			final int[] prices = new int[uniqueItemIds.length];
+			for (int i = 0; i < uniqueItemIds.length; i++)
+			{
+				final ItemComposition c = itemManager.getItemComposition(uniqueItemIds[i]);
+				linkedIds[i] = c.getLinkedNoteId();
+				prices[i] = itemManager.getItemPrice(c.getId());
+			}
+
+			onBuilt.accept(new ItemMetadataCache(revision, itemCount, haPrices, names, uniqueItemIds.clone(), linkedIds, prices));
+			return true;
+		};
+	}
+
+	/**
+	 * @param uniqueItemIds items whose linked note id and price should be stored, a snapshot built for a different
+	 * list of unique items is out of date
+	 * @return the stored snapshot or null if there isn't a valid one for this revision, item count and unique items
+	 */
+	@Nullable
+	public static ItemMetadataCache read(final int revision, final int itemCount, final int[] uniqueItemIds)
+	{
+		if (System.currentTimeMillis() - CACHE_FILE.lastModified() > MAX_AGE_MS)
+		{
+			return null;
+		}
+
+		try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(CACHE_FILE))))
+		{
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != revision || in.readInt() != itemCount
+				|| in.readInt() != Arrays.hashCode(uniqueItemIds))
+			{
+				return null;
+			}
+
+			final int[] haPrices = new int[itemCount];
+			final String[] names = new String[itemCount];
+			// Only items with a HA price or name are stored
+			final int priceEntries = in.readInt();
+			for (int i = 0; i < priceEntries; i++)
+			{
+				haPrices[checkId(in.readInt(), itemCount)] = in.readInt();
+			}
+
+			final int nameEntries = in.readInt();
+			for (int i = 0; i < nameEntries; i++)
+			{
+				names[checkId(in.readInt(), itemCount)] = in.readUTF();
+			}
+
+			final int uniqueEntries = in.readInt();
+			final int[] uniqueIds = new int[uniqueEntries];
+			final int[] linkedIds = new int[uniqueEntries];
+			final int[] prices = new int[uniqueEntries];
+			for (int i = 0; i < uniqueEntries; i++)
+			{
+				uniqueIds[i] = in.readInt();
+				linkedIds[i] = in.readInt();
+				prices[i] = in.readInt();
+			}
+
+			// The hash only rules out most mismatches cheaply
+			if (!Arrays.equals(uniqueIds, uniqueItemIds))
+			{
+				return null;
+			}
+
+			return new ItemMetadataCache(revision, itemCount, haPrices, names, uniqueIds, linkedIds, prices);
+		}
+		catch (FileNotFoundException e)
+		{
+			return null;
+		}
+		catch (IOException e)
+		{
+			log.debug("Unable to read item metadata cache: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static int checkId(final int id, final int itemCount) throws IOException
+	{
+		if (id < 0 || id >= itemCount)
+		{
+			throw new IOException("Invalid item id " + id);
+		}
+
+		return id;
+	}
+
+	public void write()
+	{
+		final File temp = new File(CACHE_FILE.getParentFile(), CACHE_FILE.getName() + TEMP_EXTENSION);
+		try
+		{
+			try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))))
+			{
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(revision);
+				out.writeInt(itemCount);
+				out.writeInt(Arrays.hashCode(uniqueIds));
+
+				out.writeInt(countNonZero(haPrices));
+				for (int id = 0; id < haPrices.length; id++)
+				{
+					if (haPrices[id] != 0)
+					{
+						out.writeInt(id);
+						out.writeInt(haPrices[id]);
+					}
+				}
+
+				out.writeInt(countNonNull(names));
+				for (int id = 0; id < names.length; id++)
+				{
+					if (names[id] != null)
+					{
+						out.writeInt(id);
+						out.writeUTF(names[id]);
+					}
+				}
+
+				out.writeInt(uniqueIds.length);
+				for (int i = 0; i < uniqueIds.length; i++)
+				{
+					out.writeInt(uniqueIds[i]);
+					out.writeInt(uniqueLinkedIds[i]);
+					out.writeInt(uniquePrices[i]);
+				}
+			}
+
+			LootRecordWriter.moveReplacing(temp, CACHE_FILE);
+			log.debug("Saved item metadata cache for {} items", itemCount);
+		}
+		catch (IOException e)
+		{
+			log.warn("Error writing item metadata cache: {}", e.getMessage());
+			temp.delete();
+		}
+	}
+
+	private static int countNonZero(final int[] values)
+	{
+		int count = 0;
+		for (final int value : values)
+		{
+			if (value != 0)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int countNonNull(final String[] values)
+	{
+		int count = 0;
+		for (final String value : values)
+		{
+			if (value != null)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+}
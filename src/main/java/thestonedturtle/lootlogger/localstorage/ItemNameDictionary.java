@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Item names by item id, used to share a single name instance between every loaded entry of the same item instead of
+ * keeping a copy of the name for each drop. Filled from the item metadata on startup and from loaded files.
+ */
+@Slf4j
+public class ItemNameDictionary
+{
+	// Real item ids are far below this, a larger id such as from a corrupt file isn't worth growing the table for
+	private static final int MAX_STORED_ID = 1 << 18;
+	// Index is the item id, grown as needed. Slots are written under the class lock but read without it, a stale read
+	// only means the name is stored again
+	private static volatile String[] names = new String[0];
+
+	private ItemNameDictionary()
+	{
+	}
+
+	/**
+	 * @return the shared instance of this name for the item, or the passed name if it can't be shared
+	 */
+	public static String intern(final int id, final String name)
+	{
+		if (name == null || id < 0)
+		{
+			return name;
+		}
+
+		if (id >= MAX_STORED_ID)
+		{
+			return name.intern();
+		}
+
+		final String[] known = names;
+		if (id < known.length)
+		{
+			final String existing = known[id];
+			if (name.equals(existing))
+			{
+				return existing;
+			}
+
+			if (existing != null)
+			{
+				// Stored under an older name, such as before the item was renamed
+				return name.intern();
+			}
+		}
+
+		return store(id, name);
+	}
+
+	private static synchronized String store(final int id, final String name)
+	{
+		String[] known = names;
+		if (id >= known.length)
+		{
+			known = Arrays.copyOf(known, Math.max(id + 1, known.length * 2));
+		}
+
+		if (known[id] == null)
+		{
+			known[id] = name;
+		}
+		names = known;
+		return name.equals(known[id]) ? known[id] : name.intern();
+	}
+
+	/**
+	 * @param compositionNames item names indexed by id, such as from the {@link ItemMetadataCache}
+	 */
+	public static void prepareItemNames(final String[] compositionNames)
+	{
+		final int maxId = compositionNames.length;
+		synchronized (ItemNameDictionary.class)
+		{
+			// Keep names already loaded from files so those entries stay shared
+			final String[] prepared = Arrays.copyOf(names, Math.max(maxId, names.length));
+			for (int id = 0; id < maxId; id++)
+			{
+				if (prepared[id] == null)
+				{
+					prepared[id] = compositionNames[id];
+				}
+			}
+
+			names = prepared;
+		}
+
+		log.debug("Finished preparing item names");
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Reads and writes {@link LTItemEntry} directly from the token stream, in the same layout reflection would use.
+ * The HA price isn't stored so it's looked up while reading, along with the total used for averaged prices.
+ */
+class LTItemEntryAdapter extends TypeAdapter<LTItemEntry>
+{
+	@Override
+	public void write(JsonWriter out, LTItemEntry value) throws IOException
+	{
+		if (value == null)
+		{
+			out.nullValue();
+			return;
+		}
+
+		out.beginObject();
+		out.name("name").value(value.getName());
+		out.name("id").value(value.getId());
+		out.name("quantity").value(value.getQuantity());
+		out.name("price").value(value.getPrice());
+		out.endObject();
+	}
+
+	@Override
+	public LTItemEntry read(JsonReader in) throws IOException
+	{
+		if (in.peek() == JsonToken.NULL)
+		{
+			in.nextNull();
+			return null;
+		}
+
+		String name = null;
+		int id = 0;
+		int quantity = 0;
+		long price = 0;
+		// Every field is required
+		int found = 0;
+
+		in.beginObject();
+		while (in.hasNext())
+		{
+			switch (in.nextName())
+			{
+				case "name":
+					name = in.nextString();
+					found |= 1;
+					break;
+				case "id":
+					id = in.nextInt();
+					found |= 2;
+					break;
+				case "quantity":
+					quantity = in.nextInt();
+					found |= 4;
+					break;
+				case "price":
+					price = in.nextLong();
+					found |= 8;
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+
+		if (found != 15)
+		{
+			throw new JsonParseException("Loot item entry is missing required fields at " + in.getPath());
+		}
+
+		return new LTItemEntry(ItemNameDictionary.intern(id, name), id, quantity, price, LootRecordWriter.getHaPrice(id), price * quantity);
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Reads and writes {@link LTRecord} directly from the token stream without reflection, in the same layout
+ * reflection would use so existing files and the {@link LTRecordByteParser} are unaffected.
+ * Unknown fields are skipped and unknown record types are read as null, like Gson does.
+ */
+class LTRecordAdapter extends TypeAdapter<LTRecord>
+{
+	private final TypeAdapter<Date> dateAdapter;
+	private final TypeAdapter<LTItemEntry> itemAdapter;
+
+	LTRecordAdapter(final TypeAdapter<Date> dateAdapter, final TypeAdapter<LTItemEntry> itemAdapter)
+	{
+		this.dateAdapter = dateAdapter;
+		this.itemAdapter = itemAdapter;
+	}
+
+	@Override
+	public void write(JsonWriter out, LTRecord value) throws IOException
+	{
+		if (value == null)
+		{
+			out.nullValue();
+			return;
+		}
+
+		out.beginObject();
+		out.name("name").value(value.getName());
+		out.name("level").value(value.getLevel());
+		out.name("killCount").value(value.getKillCount());
+		out.name("type").value(value.getType() == null ? null : value.getType().name());
+
+		out.name("drops");
+		if (value.getDrops() == null)
+		{
+			out.nullValue();
+		}
+		else
+		{
+			out.beginArray();
+			for (final LTItemEntry entry : value.getDrops())
+			{
+				itemAdapter.write(out, entry);
+			}
+			out.endArray();
+		}
+
+		out.name("date");
+		dateAdapter.write(out, value.getDate());
+		out.endObject();
+	}
+
+	@Override
+	public LTRecord read(JsonReader in) throws IOException
+	{
+		if (in.peek() == JsonToken.NULL)
+		{
+			in.nextNull();
+			return null;
+		}
+
+		String name = null;
+		int level = 0;
+		int killCount = 0;
+		LootRecordType type = null;
+		Collection<LTItemEntry> drops = null;
+		Date date = null;
+
+		in.beginObject();
+		while (in.hasNext())
+		{
+			switch (in.nextName())
+			{
+				case "name":
+					name = readNullableString(in);
+					break;
+				case "level":
+					level = in.nextInt();
+					break;
+				case "killCount":
+					killCount = in.nextInt();
+					break;
+				case "type":
+					type = readType(in);
+					break;
+				case "drops":
+					drops = readDrops(in);
+					break;
+				case "date":
+					date = dateAdapter.read(in);
+					break;
+				default:
+					in.skipValue();
+			}
+		}
+		in.endObject();
+
+		return new LTRecord(name, level, killCount, type, drops, date);
+	}
+
+	private Collection<LTItemEntry> readDrops(final JsonReader in) throws IOException
+	{
+		if (in.peek() == JsonToken.NULL)
+		{
+			in.nextNull();
+			return null;
+		}
+
+		final Collection<LTItemEntry> drops = new ArrayList<>();
+		in.beginArray();
+		while (in.hasNext())
+		{
+			drops.add(itemAdapter.read(in));
+		}
+		in.endArray();
+
+		return drops;
+	}
+
+	private static LootRecordType readType(final JsonReader in) throws IOException
+	{
+		final String type = readNullableString(in);
+		if (type == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return LootRecordType.valueOf(type);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return null;
+		}
+	}
+
+	private static String readNullableString(final JsonReader in) throws IOException
+	{
+		if (in.peek() == JsonToken.NULL)
+		{
+			in.nextNull();
+			return null;
+		}
+
+		return in.nextString();
+	}
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import javax.annotation.Nullable;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Parses a single JSON Lines record directly from the bytes of a loot file, without decoding the line to a String.
+ * Only the {@link LTRecord} and {@link LTItemEntry} layout written by {@link LootRecordWriter} is understood,
+ * anything unexpected makes {@link #parse} return null so the caller can fall back to Gson for that line.
+ * Not thread-safe, each reader should use its own instance.
+ */
+class LTRecordByteParser
+{
+	// Thrown for anything the parser doesn't understand, stack traces are skipped as this is only used for control flow
+	private static class UnexpectedJsonException extends Exception
+	{
+		private static final UnexpectedJsonException INSTANCE = new UnexpectedJsonException();
+
+		private UnexpectedJsonException()
+		{
+			super(null, null, false, false);
+		}
+	}
+
+	// Records are written with the platform charset, see LootRecordWriter#encodeJson
+	private final Charset charset = Charset.defaultCharset();
+	private final LootRecordDateAdapter dateAdapter;
+
+	private ByteBuffer buffer;
+	private int pos;
+	private int end;
+
+	LTRecordByteParser(final LootRecordDateAdapter dateAdapter)
+	{
+		this.dateAdapter = dateAdapter;
+	}
+
+	/**
+	 * @param buffer buffer containing the line, only absolute reads are used so its position is left unchanged
+	 * @param start index of the first byte of the line
+	 * @param end index after the last byte of the line, excluding the line separator
+	 * @return the record or null if the line isn't in the expected layout
+	 */
+	@Nullable
+	LTRecord parse(final ByteBuffer buffer, final int start, final int end)
+	{
+		this.buffer = buffer;
+		this.pos = start;
+		this.end = end;
+
+		try
+		{
+			final LTRecord record = readRecord();
+			skipWhitespace();
+			return pos == end ? record : null;
+		}
+		catch (UnexpectedJsonException e)
+		{
+			return null;
+		}
+		finally
+		{
+			this.buffer = null;
+		}
+	}
+
+	private LTRecord readRecord() throws UnexpectedJsonException
+	{
+		String name = null;
+		int level = 0;
+		int killCount = 0;
+		LootRecordType type = null;
+		Collection<LTItemEntry> drops = null;
+		Date date = null;
+
+		expect('{');
+		if (!consume('}'))
+		{
+			do
+			{
+				final String key = readString();
+				expect(':');
+				switch (key)
+				{
+					case "name":
+						name = readNullableString();
+						break;
+					case "level":
+						level = readInt();
+						break;
+					case "killCount":
+						killCount = readInt();
+						break;
+					case "type":
+						type = readType();
+						break;
+					case "drops":
+						drops = readDrops();
+						break;
+					case "date":
+						date = readDate();
+						break;
+					default:
+						throw UnexpectedJsonException.INSTANCE;
+				}
+			}
+			while (consume(','));
+			expect('}');
+		}
+
+		return new LTRecord(name, level, killCount, type, drops, date);
+	}
+
+	@Nullable
+	private Collection<LTItemEntry> readDrops() throws UnexpectedJsonException
+	{
+		if (consumeNull())
+		{
+			return null;
+		}
+
+		final Collection<LTItemEntry> drops = new ArrayList<>();
+		expect('[');
+		if (!consume(']'))
+		{
+			do
+			{
+				drops.add(readItemEntry());
+			}
+			while (consume(','));
+			expect(']');
+		}
+
+		return drops;
+	}
+
+	private LTItemEntry readItemEntry() throws UnexpectedJsonException
+	{
+		String name = null;
+		int id = 0;
+		int quantity = 0;
+		long price = 0;
+		// Matches LTItemEntryAdapter which requires every field to be present
+		int found = 0;
+
+		expect('{');
+		do
+		{
+			final String key = readString();
+			expect(':');
+			switch (key)
+			{
+				case "name":
+					name = readString();
+					found |= 1;
+					break;
+				case "id":
+					id = readInt();
+					found |= 2;
+					break;
+				case "quantity":
+					quantity = readInt();
+					found |= 4;
+					break;
+				case "price":
+					price = readLong();
+					found |= 8;
+					break;
+				default:
+					throw UnexpectedJsonException.INSTANCE;
+			}
+		}
+		while (consume(','));
+		expect('}');
+
+		if (found != 15)
+		{
+			throw UnexpectedJsonException.INSTANCE;
+		}
+
+		return new LTItemEntry(ItemNameDictionary.intern(id, name), id, quantity, price, LootRecordWriter.getHaPrice(id), price * quantity);
+	}
+
+	@Nullable
+	private LootRecordType readType() throws UnexpectedJsonException
+	{
+		final String type = readNullableString();
+		if (type == null)
+		{
+			return null;
+		}
+
+		try
+		{
+			return LootRecordType.valueOf(type);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Matches how Gson handles enum values it doesn't know about
+			return null;
+		}
+	}
+
+	@Nullable
+	private Date readDate() throws UnexpectedJsonException
+	{
+		// Written as epoch milliseconds when LootRecordDateAdapter#writeEpochMillis is enabled
+		skipWhitespace();
+		if (pos < end && buffer.get(pos) != '"' && buffer.get(pos) != 'n')
+		{
+			return new Date(readLong());
+		}
+
+		final String date = readNullableString();
+		return date == null ? null : dateAdapter.parse(date);
+	}
+
+	private int readInt() throws UnexpectedJsonException
+	{
+		final long value = readLong();
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+		{
+			throw UnexpectedJsonException.INSTANCE;
+		}
+
+		return (int) value;
+	}
+
+	private long readLong() throws UnexpectedJsonException
+	{
+		skipWhitespace();
+		final boolean negative = pos < end && buffer.get(pos) == '-';
+		if (negative)
+		{
+			pos++;
+		}
+
+		final int start = pos;
+		long value = 0;
+		while (pos < end)
+		{
+			final byte b = buffer.get(pos);
+			if (b < '0' || b > '9')
+			{
+				break;
+			}
+
+			// 18 digits always fit within a long
+			if (pos - start >= 18)
+			{
+				throw UnexpectedJsonException.INSTANCE;
+			}
+
+			value = value * 10 + (b - '0');
+			pos++;
+		}
+
+		if (pos == start)
+		{
+			throw UnexpectedJsonException.INSTANCE;
+		}
+
+		// Fractions and exponents are never written for these fields
+		if (pos < end)
+		{
+			final byte b = buffer.get(pos);
+			if (b == '.' || b == 'e' || b == 'E')
+			{
+				throw UnexpectedJsonException.INSTANCE;
+			}
+		}
+
+		return negative ? -value : value;
+	}
+
+	@Nullable
+	private String readNullableString() throws UnexpectedJsonException
+	{
+		return consumeNull() ? null : readString();
+	}
+
+	private String readString() throws UnexpectedJsonException
+	{
+		expect('"');
+		final int start = pos;
+		boolean ascii = true;
+		boolean escaped = false;
+		while (true)
+		{
+			if (pos >= end)
+			{
+				throw UnexpectedJsonException.INSTANCE;
+			}
+
+			final byte b = buffer.get(pos);
+			if (b == '"')
+			{
+				break;
+			}
+
+			if (b == '\\')
+			{
+				escaped = true;
+				// Skip the escaped character so an escaped quote doesn't end the string
+				pos++;
+			}
+			else if (b < 0)
+			{
+				ascii = false;
+			}
+			pos++;
+		}
+
+		final int stringEnd = pos;
+		pos++;
+
+		if (!escaped)
+		{
+			return decode(start, stringEnd, ascii ? StandardCharsets.ISO_8859_1 : charset);
+		}
+
+		return unescape(start, stringEnd);
+	}
+
+	private String unescape(final int start, final int stringEnd) throws UnexpectedJsonException
+	{
+		final StringBuilder sb = new StringBuilder(stringEnd - start);
+		int runStart = start;
+		int i = start;
+		while (i < stringEnd)
+		{
+			if (buffer.get(i) != '\\')
+			{
+				i++;
+				continue;
+			}
+
+			// Decode the raw bytes before the escape sequence
+			if (i > runStart)
+			{
+				sb.append(decode(runStart, i, charset));
+			}
+
+			if (i + 1 >= stringEnd)
+			{
+				throw UnexpectedJsonException.INSTANCE;
+			}
+
+			final byte escape = buffer.get(i + 1);
+			i += 2;
+			switch (escape)
+			{
+				case '"':
+				case '\\':
+				case '/':
+					sb.append((char) escape);
+					break;
+				case 'b':
+					sb.append('\b');
+					break;
+				case 'f':
+					sb.append('\f');
+					break;
+				case 'n':
+					sb.append('\n');
+					break;
+				case 'r':
+					sb.append('\r');
+					break;
+				case 't':
+					sb.append('\t');
+					break;
+				case 'u':
+					if (i + 4 > stringEnd)
+					{
+						throw UnexpectedJsonException.INSTANCE;
+					}
+
+					int c = 0;
+					for (int j = 0; j < 4; j++)
+					{
+						final int digit = Character.digit(buffer.get(i + j), 16);
+						if (digit < 0)
+						{
+							throw UnexpectedJsonException.INSTANCE;
+						}
+						c = (c << 4) | digit;
+					}
+					sb.append((char) c);
+					i += 4;
+					break;
+				default:
+					throw UnexpectedJsonException.INSTANCE;
+			}
+
+			runStart = i;
+		}
+
+		if (stringEnd > runStart)
+		{
+			sb.append(decode(runStart, stringEnd, charset));
+		}
+
+		return sb.toString();
+	}
+
+	private String decode(final int start, final int stringEnd, final Charset decodeCharset)
+	{
+		final byte[] bytes = new byte[stringEnd - start];
+		for (int i = 0; i < bytes.length; i++)
+		{
+			bytes[i] = buffer.get(start + i);
+		}
+
+		return new String(bytes, decodeCharset);
+	}
+
+	private boolean consumeNull() throws UnexpectedJsonException
+	{
+		skipWhitespace();
+		if (pos + 4 <= end && buffer.get(pos) == 'n')
+		{
+			if (buffer.get(pos + 1) != 'u' || buffer.get(pos + 2) != 'l' || buffer.get(pos + 3) != 'l')
+			{
+				throw UnexpectedJsonException.INSTANCE;
+			}
+
+			pos += 4;
+			return true;
+		}
+
+		return false;
+	}
+
+	private void expect(final char c) throws UnexpectedJsonException
+	{
+		if (!consume(c))
+		{
+			throw UnexpectedJsonException.INSTANCE;
+		}
+	}
+
+	private boolean consume(final char c)
+	{
+		skipWhitespace();
+		if (pos < end && buffer.get(pos) == c)
+		{
+			pos++;
+			return true;
+		}
+
+		return false;
+	}
+
+	private void skipWhitespace()
+	{
+		while (pos < end)
+		{
+			final byte b = buffer.get(pos);
+			if (b != ' ' && b != '\t' && b != '\r' && b != '\n')
+			{
+				return;
+			}
+			pos++;
+		}
+	}
+}
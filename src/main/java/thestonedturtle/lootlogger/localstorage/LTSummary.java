@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.util.Collection;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import net.runelite.http.api.loottracker.LootRecordType;
+
+/**
+ * Consolidated totals for a single loot log file.
+ * Stored next to the log file so opening a tab only needs to parse the records appended after {@link #offset}.
+ */
+@Data
+@RequiredArgsConstructor
+public class LTSummary
+{
+	static final int VERSION = 1;
+
+	public int version;
+	// Amount of bytes, from the start of the log file, that have been consolidated into this summary
+	public long offset;
+	// CRC32 of the bytes directly before the offset, used to detect the log file being rewritten
+	public long checksum;
+	public long lastModified;
+
+	public final LootRecordType type;
+	public final int recordCount;
+	public final int lastKillCount;
+	public final Collection<Item> items;
+
+	@Data
+	public static class Item
+	{
+		public final String name;
+		public final int id;
+		public final int quantity;
+		// Price of item at most recent drop
+		public final long price;
+		public final long averagedTotalPrice;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import net.runelite.http.api.loottracker.LootRecordType;
+import thestonedturtle.lootlogger.LootStorageFormat;
+
+/**
+ * Names of the loot files stored for an account, persisted in the account folder so the known names can be listed
+ * without scanning every record type folder.
+ * Kept up to date by the {@link LootRecordWriter} as it appends to and deletes files, and reconciled against the
+ * folders in the background to pick up changes made while the plugin wasn't running.
+ * Not thread safe, the writer only accesses it while holding its own lock.
+ */
+class LootNameManifest
+{
+	static final String FILE_NAME = "names.manifest";
+	static final int VERSION = 1;
+
+	@Data
+	@AllArgsConstructor
+	static class FileInfo
+	{
+		private long size;
+		private long lastModified;
+	}
+
+	int version = VERSION;
+	// Loot files by record type, keyed by the file name including its extension
+	Map<LootRecordType, Map<String, FileInfo>> files = new HashMap<>();
+
+	// Whether there are changes that haven't been saved yet
+	private transient boolean dirty;
+	// Incremented on every change so a reconcile can tell if the manifest changed while it was scanning
+	private transient int modCount;
+
+	boolean isDirty()
+	{
+		return dirty;
+	}
+
+	void markSaved()
+	{
+		dirty = false;
+	}
+
+	int getModCount()
+	{
+		return modCount;
+	}
+
+	SetMultimap<LootRecordType, String> getNames()
+	{
+		return namesOf(files);
+	}
+
+	private static SetMultimap<LootRecordType, String> namesOf(final Map<LootRecordType, Map<String, FileInfo>> files)
+	{
+		final SetMultimap<LootRecordType, String> names = HashMultimap.create();
+		for (final Map.Entry<LootRecordType, Map<String, FileInfo>> entry : files.entrySet())
+		{
+			for (final String fileName : entry.getValue().keySet())
+			{
+				names.put(entry.getKey(), stripExtension(fileName));
+			}
+		}
+
+		return names;
+	}
+
+	/**
+	 * Records a file records are being appended to, its size and modified time are updated by
+	 * {@link #recordWrite(LootRecordType, String, long, long)} once they have been written
+	 * @return true if the file wasn't known before
+	 */
+	boolean recordAppend(final LootRecordType type, final File file)
+	{
+		final Map<String, FileInfo> typeFiles = files.computeIfAbsent(type, k -> new HashMap<>());
+		if (typeFiles.containsKey(file.getName()))
+		{
+			return false;
+		}
+
+		typeFiles.put(file.getName(), new FileInfo(file.length(), file.lastModified()));
+		modCount++;
+		dirty = true;
+		return true;
+	}
+
+	/**
+	 * Updates the size and modified time of a known file after records were written to it
+	 */
+	void recordWrite(final LootRecordType type, final String fileName, final long size, final long lastModified)
+	{
+		final Map<String, FileInfo> typeFiles = files.get(type);
+		final FileInfo info = typeFiles == null ? null : typeFiles.get(fileName);
+		// Files deleted or replaced since the write are already up to date
+		if (info == null || (info.getSize() == size && info.getLastModified() == lastModified))
+		{
+			return;
+		}
+
+		info.setSize(size);
+		info.setLastModified(lastModified);
+		modCount++;
+		dirty = true;
+	}
+
+	void put(final LootRecordType type, final File file)
+	{
+		files.computeIfAbsent(type, k -> new HashMap<>()).put(file.getName(), new FileInfo(file.length(), file.lastModified()));
+		modCount++;
+		dirty = true;
+	}
+
+	void remove(final LootRecordType type, final String fileName)
+	{
+		final Map<String, FileInfo> typeFiles = files.get(type);
+		if (typeFiles != null && typeFiles.remove(fileName) != null)
+		{
+			modCount++;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Replaces the known files with the result of a folder scan
+	 * @return true if the known names changed
+	 */
+	boolean replaceAll(final Map<LootRecordType, Map<String, FileInfo>> scanned)
+	{
+		final boolean namesChanged = !namesOf(files).equals(namesOf(scanned));
+		if (!files.equals(scanned))
+		{
+			files = scanned;
+			modCount++;
+			dirty = true;
+		}
+
+		return namesChanged;
+	}
+
+	private static String stripExtension(final String fileName)
+	{
+		for (final LootStorageFormat format : LootStorageFormat.values())
+		{
+			if (fileName.endsWith(format.getFileExtension()))
+			{
+				return fileName.substring(0, fileName.length() - format.getFileExtension().length());
+			}
+		}
+
+		return fileName;
+	}
+}
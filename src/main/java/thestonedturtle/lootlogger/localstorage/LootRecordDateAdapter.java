@@ -26,24 +26,68 @@ package thestonedturtle.lootlogger.localstorage;
 
 import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * This class is needed because at some point after Java 17 but including Java 20 the default date format changed
  * For Java 17- it uses a normal space between the AM/PM while in Java 20+ the unicode character U+202f is used
- * This adapter checks to see if the unicode character is within the date and will use the proper GSON object for parsing it
+ * This adapter accepts both variants, but will always write with a normal space.
+ * Dates can also be written as epoch milliseconds, which are always accepted when reading.
+ * Uses java.time so a single instance can be shared between the threads loading files.
  */
 @Slf4j
 public class LootRecordDateAdapter extends TypeAdapter<Date>
 {
-	private final SimpleDateFormat SPACE_FORMAT = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa");
-	private final SimpleDateFormat UNICODE_FORMAT = new SimpleDateFormat("MMM d, yyyy, h:mm:ss\u202Faaa");
+	private static final char NARROW_NO_BREAK_SPACE = '\u202F';
+	private static final String DATE_PATTERN = "MMM d, yyyy";
+	private static final String TIME_PATTERN = "h:mm:ss a";
+	private static final String DATE_TIME_SEPARATOR = ", ";
+	// Every record from the same day shares the date part, so only the time needs to be parsed for most records
+	private static final int MAX_CACHED_DAYS = 4096;
+
+	private final DateTimeFormatter dateTimeFormat;
+	private final DateTimeFormatter dateFormat;
+	private final String amText;
+	private final String pmText;
+	private final Map<String, LocalDate> days = new ConcurrentHashMap<>();
+
+	@Setter
+	private volatile boolean writeEpochMillis;
+
+	public LootRecordDateAdapter()
+	{
+		// Same locale SimpleDateFormat used by default
+		final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+		dateTimeFormat = formatter(DATE_PATTERN + DATE_TIME_SEPARATOR + TIME_PATTERN, locale);
+		dateFormat = formatter(DATE_PATTERN, locale);
+
+		final DateTimeFormatter amPm = DateTimeFormatter.ofPattern("a", locale);
+		amText = amPm.format(LocalTime.MIDNIGHT);
+		pmText = amPm.format(LocalTime.NOON);
+	}
+
+	private static DateTimeFormatter formatter(final String pattern, final Locale locale)
+	{
+		// SimpleDateFormat ignored the case of month names and AM/PM markers
+		return new DateTimeFormatterBuilder()
+			.parseCaseInsensitive()
+			.appendPattern(pattern)
+			.toFormatter(locale);
+	}
 
 	@Override
 	public void write(JsonWriter out, Date value) throws IOException
@@ -53,32 +97,149 @@ public class LootRecordDateAdapter extends TypeAdapter<Date>
 			return;
 		}
 
-		out.value(SPACE_FORMAT.format(value));
+		if (writeEpochMillis)
+		{
+			out.value(value.getTime());
+			return;
+		}
+
+		out.value(dateTimeFormat.format(LocalDateTime.ofInstant(value.toInstant(), ZoneId.systemDefault())));
 	}
 
 	@Override
 	public Date read(JsonReader reader) throws IOException {
-		if (reader.peek() == JsonToken.NULL) {
-			reader.nextNull();
+		switch (reader.peek())
+		{
+			case NULL:
+				reader.nextNull();
+				return null;
+			case NUMBER:
+				return new Date(reader.nextLong());
+			default:
+				return parse(reader.nextString());
+		}
+	}
+
+	/**
+	 * Parses a date string in either of the supported formats
+	 * @return the parsed date or null if the string couldn't be parsed
+	 */
+	Date parse(String date)
+	{
+		date = date.replace(NARROW_NO_BREAK_SPACE, ' ');
+
+		LocalDateTime dateTime = parseCached(date);
+		if (dateTime == null)
+		{
+			try
+			{
+				dateTime = LocalDateTime.parse(date, dateTimeFormat);
+			}
+			catch (DateTimeParseException e)
+			{
+				log.error("Error parsing LootRecord date value: {}", date);
+				return null;
+			}
+		}
+
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+
+	/**
+	 * Parses the time by hand and looks up the date part in the cache
+	 * @return the parsed date or null if it isn't in the expected layout, in which case the full formatter is used
+	 */
+	private LocalDateTime parseCached(final String date)
+	{
+		// The date part contains a comma itself, so the time starts after the second separator
+		final int firstSeparator = date.indexOf(DATE_TIME_SEPARATOR);
+		final int separator = firstSeparator < 0 ? -1 : date.indexOf(DATE_TIME_SEPARATOR, firstSeparator + DATE_TIME_SEPARATOR.length());
+		if (separator < 0)
+		{
+			return null;
+		}
+
+		final LocalTime time = parseTime(date, separator + DATE_TIME_SEPARATOR.length());
+		if (time == null)
+		{
 			return null;
 		}
 
-		String date = reader.nextString();
-		try
+		final String day = date.substring(0, separator);
+		LocalDate localDate = days.get(day);
+		if (localDate == null)
 		{
-			if (date.contains("\u202F"))
+			try
+			{
+				localDate = LocalDate.parse(day, dateFormat);
+			}
+			catch (DateTimeParseException e)
 			{
-				return UNICODE_FORMAT.parse(date);
+				return null;
 			}
 
-			return SPACE_FORMAT.parse(date);
+			if (days.size() >= MAX_CACHED_DAYS)
+			{
+				days.clear();
+			}
+			days.put(day, localDate);
+		}
+
+		return LocalDateTime.of(localDate, time);
+	}
+
+	// Parses the `h:mm:ss a` layout starting at the index
+	private LocalTime parseTime(final String date, int i)
+	{
+		final int length = date.length();
+		int hour = 0;
+		final int hourStart = i;
+		while (i < length && i - hourStart < 2 && Character.isDigit(date.charAt(i)))
+		{
+			hour = hour * 10 + (date.charAt(i++) - '0');
+		}
+
+		if (i == hourStart || hour < 1 || hour > 12)
+		{
+			return null;
 		}
-		catch (ParseException e)
+
+		final int minute = parseField(date, i);
+		final int second = parseField(date, i + 3);
+		if (minute < 0 || second < 0 || i + 6 >= length || date.charAt(i + 6) != ' ')
 		{
-			log.error("Error parsing LootRecord date value: {}", date);
-			e.printStackTrace();
 			return null;
 		}
+
+		final String marker = date.substring(i + 7);
+		if (marker.equalsIgnoreCase(amText))
+		{
+			return LocalTime.of(hour % 12, minute, second);
+		}
+
+		if (marker.equalsIgnoreCase(pmText))
+		{
+			return LocalTime.of(hour % 12 + 12, minute, second);
+		}
+
+		return null;
 	}
 
+	// Parses a `:` followed by two digits between 0 and 59, or returns -1
+	private static int parseField(final String date, final int i)
+	{
+		if (i + 3 > date.length() || date.charAt(i) != ':')
+		{
+			return -1;
+		}
+
+		final char tens = date.charAt(i + 1);
+		final char ones = date.charAt(i + 2);
+		if (tens < '0' || tens > '5' || ones < '0' || ones > '9')
+		{
+			return -1;
+		}
+
+		return (tens - '0') * 10 + (ones - '0');
+	}
 }
@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import thestonedturtle.lootlogger.LootStorageFormat;
+
+/**
+ * Encodes and appends records to their log files from a dedicated thread so the caller never waits on the disk.
+ * Queued records are batched per file and flushed on a timer, once enough records are waiting, or when requested.
+ * The string tables of binary files are only read and updated from that thread, once the file is first written to.
+ * Recently written files are kept open so fast-kill content doesn't reopen the same file for every drop.
+ * Batches that fail to write are kept and retried by the following flushes, ahead of anything queued after them.
+ * <p>
+ * Files that are about to be replaced are held: records for them are kept back, without blocking the caller,
+ * until the replacement is done and they can be appended to whichever file took its place.
+ * The queue is bounded, once {@link #MAX_QUEUED_RECORDS} are waiting new records are rejected rather than making the
+ * caller wait for the disk.
+ */
+@Slf4j
+class LootRecordWriteQueue
+{
+	// Only reached if the writer is stuck on the disk, records added past it are rejected and logged
+	static final int MAX_QUEUED_RECORDS = 8192;
+	// Amount of queued records that triggers a flush without waiting for the timer
+	private static final int FLUSH_THRESHOLD = 32;
+	private static final long FLUSH_INTERVAL_MS = 1000;
+	private static final int MAX_OPEN_FILES = 8;
+	// Times a batch is written before its records are given up on
+	private static final int MAX_WRITE_ATTEMPTS = 5;
+	private static final int STRING_TABLE_BUFFER_SIZE = 64 * 1024;
+	// The writer thread exits after being idle for this long and is started again by the next record
+	private static final long IDLE_TIMEOUT_MS = 30_000;
+
+	@Value
+	private static class PendingRecord
+	{
+		File file;
+		LTRecord record;
+	}
+
+	/**
+	 * Encodes a record as a line of a JSON Lines file
+	 */
+	interface LineEncoder
+	{
+		byte[] encode(LTRecord record) throws IOException;
+	}
+
+	/**
+	 * Notified from the writer thread after records have been appended to a file
+	 */
+	interface WriteListener
+	{
+		/**
+		 * @param size length of the file after the write
+		 * @param lastModified modified time of the file after the write
+		 */
+		void onWritten(File file, long size, long lastModified);
+	}
+
+	@Value
+	private static class FailedBatch
+	{
+		List<LTRecord> records;
+		int attempts;
+	}
+
+	private final BlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>(MAX_QUEUED_RECORDS);
+	private final LineEncoder lineEncoder;
+	private final WriteListener listener;
+	private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r ->
+	{
+		final Thread thread = new Thread(r, "LootLogger Writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// Only runs while records are being added, so the writer thread can exit once the queue is stopped
+	private ScheduledFuture<?> flushTimer;
+
+	// Only accessed from the executor thread, least recently used handles are closed once the limit is reached
+	private final Map<File, FileChannel> channels = new LinkedHashMap<File, FileChannel>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, FileChannel> eldest)
+		{
+			if (size() > MAX_OPEN_FILES)
+			{
+				closeChannel(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	// Only accessed from the executor thread, must match the file contents of the binary files that are open
+	private final Map<File, BinaryRecordFormat.StringTable> stringTables = new HashMap<>();
+	// Only accessed from the executor thread, batches which couldn't be written yet in the order they were queued
+	private final Map<File, FailedBatch> failed = new LinkedHashMap<>();
+	// Only accessed from the executor thread, the amount of holds on each file and on every file at once
+	private final Map<File, Integer> holds = new HashMap<>();
+	private int allFilesHolds;
+	// Only accessed from the executor thread, records kept back while their file was held in the order they were queued
+	private final List<PendingRecord> deferred = new ArrayList<>();
+	private volatile boolean overflowWarned;
+
+	// Duration of the most recent flush in nanoseconds
+	@Getter
+	private volatile long lastFlushLatency;
+
+	LootRecordWriteQueue(final LineEncoder lineEncoder, final WriteListener listener)
+	{
+		this.lineEncoder = lineEncoder;
+		this.listener = listener;
+		executor.setKeepAliveTime(IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		executor.allowCoreThreadTimeOut(true);
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	int getQueueDepth()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * Queues the record without waiting, unless the queue is full
+	 * @param record is encoded on the writer thread so it must not be modified afterwards
+	 * @return false if the record was rejected as {@link #MAX_QUEUED_RECORDS} are already waiting to be written
+	 */
+	boolean enqueue(final File file, final LTRecord record)
+	{
+		if (!queue.offer(new PendingRecord(file, record)))
+		{
+			if (!overflowWarned)
+			{
+				overflowWarned = true;
+				log.error("{} loot records are waiting to be written to disk, new records are being discarded", MAX_QUEUED_RECORDS);
+			}
+			return false;
+		}
+
+		startFlushTimer();
+		if (queue.size() >= FLUSH_THRESHOLD)
+		{
+			executor.execute(this::drain);
+		}
+		return true;
+	}
+
+	private synchronized void startFlushTimer()
+	{
+		if (flushTimer == null)
+		{
+			flushTimer = executor.scheduleWithFixedDelay(this::drain, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Writes all currently queued records to disk, blocking until finished.
+	 * Records for held files stay queued until they are released.
+	 */
+	void flush()
+	{
+		await(this::drain);
+	}
+
+	/**
+	 * Writes all currently queued records and closes the handle for this file, blocking until finished.
+	 * Records added for the file afterwards are kept back until {@link #release(File, UnaryOperator)} is called,
+	 * so it can be deleted or replaced without the writer appending to it in the meantime.
+	 * Records for this file which still can't be written are discarded as they would be appended to the replacement.
+	 * @param file the file to hold, or null to hold every file
+	 */
+	void hold(@Nullable final File file)
+	{
+		await(() ->
+		{
+			drain();
+			if (file == null)
+			{
+				allFilesHolds++;
+				stringTables.clear();
+				closeChannels();
+				return;
+			}
+
+			holds.merge(file, 1, Integer::sum);
+			final FailedBatch batch = failed.remove(file);
+			if (batch != null)
+			{
+				log.warn("Discarding {} loot records which couldn't be written to file {}", batch.getRecords().size(), file.getName());
+			}
+
+			stringTables.remove(file);
+			final FileChannel channel = channels.remove(file);
+			if (channel != null)
+			{
+				closeChannel(file, channel);
+			}
+		});
+	}
+
+	/**
+	 * Releases a hold without waiting, the records kept back for the file are written once no hold remains
+	 * @param file the file passed to {@link #hold(File)}
+	 * @param redirect maps the files of the records kept back to the files they should now be written to, or null to keep them
+	 */
+	void release(@Nullable final File file, @Nullable final UnaryOperator<File> redirect)
+	{
+		executor.execute(() ->
+		{
+			// Anything still queued was added while the file was held, it has to go through the redirect as well
+			final List<PendingRecord> queued = new ArrayList<>(queue.size());
+			queue.drainTo(queued);
+			deferred.addAll(queued);
+
+			if (file == null)
+			{
+				allFilesHolds--;
+			}
+			else
+			{
+				holds.computeIfPresent(file, (k, count) -> count > 1 ? count - 1 : null);
+			}
+
+			if (redirect != null)
+			{
+				for (int i = 0; i < deferred.size(); i++)
+				{
+					final PendingRecord record = deferred.get(i);
+					if (file == null || file.equals(record.getFile()))
+					{
+						deferred.set(i, new PendingRecord(redirect.apply(record.getFile()), record.getRecord()));
+					}
+				}
+
+				// Failed batches are only kept while every file is held, the redirect maps each of them to a distinct file
+				if (file == null && !failed.isEmpty())
+				{
+					final Map<File, FailedBatch> redirected = new LinkedHashMap<>();
+					failed.forEach((k, batch) -> redirected.put(redirect.apply(k), batch));
+					failed.clear();
+					failed.putAll(redirected);
+				}
+			}
+
+			drain();
+		});
+	}
+
+	/**
+	 * Writes all currently queued records and closes every open file, blocking until finished.
+	 * The writer thread exits once idle and is started again by the next record.
+	 */
+	void stop()
+	{
+		synchronized (this)
+		{
+			if (flushTimer != null)
+			{
+				flushTimer.cancel(false);
+				flushTimer = null;
+			}
+		}
+
+		await(() ->
+		{
+			drain();
+			stringTables.clear();
+			closeChannels();
+		});
+	}
+
+	private void await(final Runnable task)
+	{
+		try
+		{
+			executor.submit(task).get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			log.warn("Error while writing queued loot data", e.getCause());
+		}
+	}
+
+	private boolean isHeld(final File file)
+	{
+		return allFilesHolds > 0 || holds.containsKey(file);
+	}
+
+	private void drain()
+	{
+		final long start = System.nanoTime();
+		// Records kept back for files that have since been released were queued before the rest, so they go first
+		final List<PendingRecord> pending = new ArrayList<>(queue.size());
+		final Iterator<PendingRecord> released = deferred.iterator();
+		while (released.hasNext())
+		{
+			final PendingRecord record = released.next();
+			if (!isHeld(record.getFile()))
+			{
+				pending.add(record);
+				released.remove();
+			}
+		}
+		queue.drainTo(pending);
+		overflowWarned = false;
+
+		if (pending.isEmpty() && failed.isEmpty())
+		{
+			return;
+		}
+
+		// Batch records per file while keeping the order they were received in, previously failed records go first
+		final Map<File, List<LTRecord>> batches = new LinkedHashMap<>();
+		final Map<File, Integer> attempts = new HashMap<>();
+		final Iterator<Map.Entry<File, FailedBatch>> retries = failed.entrySet().iterator();
+		while (retries.hasNext())
+		{
+			final Map.Entry<File, FailedBatch> entry = retries.next();
+			if (!isHeld(entry.getKey()))
+			{
+				batches.put(entry.getKey(), new ArrayList<>(entry.getValue().getRecords()));
+				attempts.put(entry.getKey(), entry.getValue().getAttempts());
+				retries.remove();
+			}
+		}
+
+		int written = 0;
+		for (final PendingRecord record : pending)
+		{
+			if (isHeld(record.getFile()))
+			{
+				deferred.add(record);
+				continue;
+			}
+
+			batches.computeIfAbsent(record.getFile(), k -> new ArrayList<>()).add(record.getRecord());
+			written++;
+		}
+
+		for (final Map.Entry<File, List<LTRecord>> batch : batches.entrySet())
+		{
+			final File file = batch.getKey();
+			if (write(file, batch.getValue()))
+			{
+				continue;
+			}
+
+			final int attempt = attempts.getOrDefault(file, 0) + 1;
+			if (attempt < MAX_WRITE_ATTEMPTS)
+			{
+				failed.put(file, new FailedBatch(batch.getValue(), attempt));
+			}
+			else
+			{
+				log.error("Giving up on writing {} loot records to file {}", batch.getValue().size(), file.getName());
+			}
+		}
+
+		lastFlushLatency = System.nanoTime() - start;
+		log.debug("Flushed {} loot records to {} files in {}us", written, batches.size(), TimeUnit.NANOSECONDS.toMicros(lastFlushLatency));
+	}
+
+	/**
+	 * Appends the records to the file in a single write
+	 * @return false if the records couldn't be written, the file is truncated back to where they started if possible
+	 */
+	private boolean write(final File file, final List<LTRecord> records)
+	{
+		FileChannel channel = channels.get(file);
+		ByteBuffer buffer = null;
+		long start = -1;
+		try
+		{
+			if (channel == null)
+			{
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+				channels.put(file, channel);
+			}
+
+			buffer = encode(file, channel, records);
+			start = channel.size();
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+
+			listener.onWritten(file, channel.size(), file.lastModified());
+			return true;
+		}
+		catch (IOException ioe)
+		{
+			log.warn("Error writing loot data to file {}: {}", file.getName(), ioe.getMessage());
+			// The table already contains the strings of the failed batch, it's read from the file again before the retry
+			stringTables.remove(file);
+			if (channel != null)
+			{
+				// Drop a partially written batch so retrying it doesn't leave a broken record in the middle of the file
+				if (start >= 0 && buffer.position() > 0)
+				{
+					try
+					{
+						channel.truncate(start);
+					}
+					catch (IOException e)
+					{
+						log.warn("Unable to remove partially written loot data from file {}: {}", file.getName(), e.getMessage());
+					}
+				}
+
+				channels.remove(file);
+				closeChannel(file, channel);
+			}
+			return false;
+		}
+	}
+
+	private ByteBuffer encode(final File file, final FileChannel channel, final List<LTRecord> records) throws IOException
+	{
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(records.size() * 256);
+		if (LootRecordWriter.getFormat(file) != LootStorageFormat.BINARY)
+		{
+			for (final LTRecord record : records)
+			{
+				out.write(lineEncoder.encode(record));
+			}
+
+			return ByteBuffer.wrap(out.toByteArray());
+		}
+
+		BinaryRecordFormat.StringTable table = stringTables.get(file);
+		if (table == null)
+		{
+			if (channel.size() == 0)
+			{
+				table = new BinaryRecordFormat.StringTable();
+				out.write(BinaryRecordFormat.header());
+			}
+			else
+			{
+				table = readStringTable(file, channel);
+			}
+			stringTables.put(file, table);
+		}
+
+		for (final LTRecord record : records)
+		{
+			out.write(BinaryRecordFormat.encode(record, table));
+		}
+
+		return ByteBuffer.wrap(out.toByteArray());
+	}
+
+	// Rebuilds the string table from the file, dropping a partially written block at its end
+	private static BinaryRecordFormat.StringTable readStringTable(final File file, final FileChannel channel) throws IOException
+	{
+		final BinaryRecordFormat.ReadResult result;
+		try (final FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			result = BinaryRecordFormat.read(in, ByteBuffer.allocate(STRING_TABLE_BUFFER_SIZE), 0, null);
+		}
+
+		final long length = channel.size();
+		if (result.validLength < length)
+		{
+			// Drop a partially written record so the new one is appended after a complete block
+			log.warn("Discarding {} bytes of incomplete loot data in {}", length - result.validLength, file.getName());
+			channel.truncate(result.validLength);
+		}
+
+		return result.strings;
+	}
+
+	private void closeChannels()
+	{
+		final Iterator<Map.Entry<File, FileChannel>> it = channels.entrySet().iterator();
+		while (it.hasNext())
+		{
+			final Map.Entry<File, FileChannel> entry = it.next();
+			closeChannel(entry.getKey(), entry.getValue());
+			it.remove();
+		}
+	}
+
+	private static void closeChannel(final File file, final FileChannel channel)
+	{
+		try
+		{
+			channel.close();
+		}
+		catch (IOException e)
+		{
+			log.debug("Error closing loot file {}: {}", file.getName(), e.getMessage());
+		}
+	}
+}
@@ -24,280 +24,1455 @@
  */
 package thestonedturtle.lootlogger.localstorage;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import static net.runelite.client.RuneLite.RUNELITE_DIR;
 
 import net.runelite.api.gameval.ItemID;
-import net.runelite.client.callback.ClientThread;
-import net.runelite.client.game.ItemManager;
 import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.loottracker.LootRecordType;
+import thestonedturtle.lootlogger.LootStorageFormat;
 
 /**
  * Reads & Writes LootRecord data from `*name*.log` files located in `.runelite/loots/`.
  * Data is stored as json delimited by newlines, aka JSON Lines {@see <a href="http://jsonlines.org">http://jsonlines.org</a>}
+ * or, when {@link LootStorageFormat#BINARY} is selected, in `*name*.bin` files using the {@link BinaryRecordFormat}.
+ * Files stored in the other format are converted in the background the first time they are accessed.
  */
 @Slf4j
 @Singleton
 public class LootRecordWriter
 {
-	private static final String FILE_EXTENSION = ".log";
+	private static final String SUMMARY_EXTENSION = ".summary";
+	private static final String TEMP_EXTENSION = ".tmp";
+	// Amount of bytes before a summary's offset which are checked to confirm the log file wasn't rewritten
+	private static final int CHECKSUM_WINDOW = 4096;
+	private static final long DEFAULT_RAW_PARSE_THRESHOLD = 1024 * 1024;
+	// Initial size of the buffer each thread reads files into for the byte parser, grown for longer lines
+	private static final int READ_BUFFER_SIZE = 64 * 1024;
+	// Buffers grown past this size for a very long line aren't kept for the next file
+	private static final int MAX_REUSED_READ_BUFFER_SIZE = 1024 * 1024;
 	private static final File LOOT_RECORD_DIR = new File(RUNELITE_DIR, "loots");
+	// Matches the loot files of every storage format
+	private static final String LOOT_FILE_GLOB = "*{" + Arrays.stream(LootStorageFormat.values())
+		.map(LootStorageFormat::getFileExtension)
+		.collect(Collectors.joining(",")) + "}";
+	// Times a reconcile is retried when the manifest is modified while scanning
+	private static final int RECONCILE_ATTEMPTS = 3;
 
-	private static final Map<Integer, Integer> haPrices = new HashMap<>();
+	// Indexed by item id, empty until prepared
+	private static volatile int[] haPrices = new int[0];
 
+	private final File lootRecordDir;
 	// Data is stored in a folder with the players username (login name)
-	private File playerFolder = LOOT_RECORD_DIR;
+	private File playerFolder;
 	// Data is separated into sub-folders by event type to prevent issues.
 	private final Map<LootRecordType, File> eventFolders = new HashMap<>();
+	// Sub-folders are only created once something is written to them
+	private final Set<LootRecordType> createdFolders = EnumSet.noneOf(LootRecordType.class);
+	// Known loot files for the current account, null until the account folder has been set
+	private LootNameManifest manifest;
+	// Sizes reported by the writer thread, moved into the manifest the next time it is used
+	private final Map<File, LootNameManifest.FileInfo> writtenFiles = new ConcurrentHashMap<>();
 	@Setter
 	@Getter
 	private String name;
-
-	// Custom Deserializer for LTItemEntry which fetches HA price.
-	private static class LTItemEntryDeserializer implements JsonDeserializer<LTItemEntry>
-	{
-		@Override
-		public LTItemEntry deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext)
-		throws JsonParseException
-		{
-			JsonObject jsonObject = jsonElement.getAsJsonObject();
-			final String name = jsonObject.get("name").getAsString();
-			final int id = jsonObject.get("id").getAsInt();
-			int quantity = jsonObject.get("quantity").getAsInt();
-			long price = jsonObject.get("price").getAsLong();
-			int haPrice = haPrices.getOrDefault(id, 0);
-			long totalPrice = price * quantity;
-			return new LTItemEntry(name, id, quantity, price, haPrice, totalPrice);
-		}
-	}
+	// Created on demand and stopped when the plugin shuts down
+	private final LootRecordWriteQueue writeQueue = new LootRecordWriteQueue(this::encodeJson, this::onRecordsWritten);
+	@Getter
+	private LootStorageFormat storageFormat = LootStorageFormat.JSON_LINES;
+	// Incremented every time a loot file is rewritten, converted or deleted so a background rewrite can tell whether
+	// the file it read was replaced in the meantime. Appends don't count as the rewrite copies over the appended records.
+	private final Map<File, Integer> generations = new HashMap<>();
+	// Runs the conversion of files stored in the other format, they aren't converted while this is null
+	private Executor conversionExecutor;
+	// Files stored in the other format which are being converted or failed to convert
+	private final Set<File> pendingConversions = new HashSet<>();
+	private final Set<File> failedConversions = new HashSet<>();
+	// Files at least this many bytes long are read in chunks and parsed without decoding them to Strings first
+	private volatile long rawParseThreshold = DEFAULT_RAW_PARSE_THRESHOLD;
+	// Heap buffers are reused rather than mapping files, a mapped file can't be deleted on Windows until it's garbage collected
+	private final ThreadLocal<ByteBuffer> readBuffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(READ_BUFFER_SIZE));
 
 	// The default date format does not allow migrating between Java 17 and Java 20+ (in either direction)
 	// Java 20+ uses unicode character U+202f while java 17- use a normal space before the AM/PM part of the date string
 	// This date adapter will attempt to match between both variants but will always write with a space
+	private final LootRecordDateAdapter dateAdapter = new LootRecordDateAdapter();
+	private final LTItemEntryAdapter itemEntryAdapter = new LTItemEntryAdapter();
 	private final Gson CUSTOM_GSON = RuneLiteAPI.GSON.newBuilder()
-		.registerTypeAdapter(Date.class, new LootRecordDateAdapter())
-		.registerTypeAdapter(LTItemEntry.class, new LTItemEntryDeserializer())
+		.registerTypeAdapter(Date.class, dateAdapter)
+		// Records are read and written without reflection or building a JsonObject first
+		.registerTypeAdapter(LTItemEntry.class, itemEntryAdapter)
+		.registerTypeAdapter(LTRecord.class, new LTRecordAdapter(dateAdapter, itemEntryAdapter))
 		.create();
+	// Rewritten and converted files always store dates as formatted text, only appended records follow the setting
+	private final LTRecordAdapter textDateRecordAdapter = new LTRecordAdapter(new LootRecordDateAdapter(), itemEntryAdapter);
 
 	@Inject
 	public LootRecordWriter()
 	{
-        LOOT_RECORD_DIR.mkdir();
+		this(LOOT_RECORD_DIR);
+	}
+
+	LootRecordWriter(final File lootRecordDir)
+	{
+		this.lootRecordDir = lootRecordDir;
+		this.playerFolder = lootRecordDir;
+		lootRecordDir.mkdir();
 	}
 
-	public boolean setPlayerUsername(final String username)
+	public synchronized boolean setPlayerUsername(final String username)
 	{
 		if (username.equalsIgnoreCase(name))
 		{
 			return false;
 		}
 
-		playerFolder = new File(LOOT_RECORD_DIR, username);
-		playerFolder.mkdir();
+		saveManifest();
+		playerFolder = new File(lootRecordDir, username);
 		name = username;
 		createSubFolders();
+		manifest = readManifest();
 		return true;
 	}
 
 	private void createSubFolders()
 	{
 		eventFolders.clear();
+		createdFolders.clear();
 		for (final LootRecordType type : LootRecordType.values())
 		{
-			final File folder = new File(playerFolder, type.name().toLowerCase());
-			folder.mkdir();
-			eventFolders.put(type, folder);
+			eventFolders.put(type, new File(playerFolder, type.name().toLowerCase()));
+		}
+	}
+
+	private void ensureFolderExists(final LootRecordType type)
+	{
+		if (createdFolders.add(type))
+		{
+			eventFolders.get(type).mkdirs();
+		}
+	}
+
+	public synchronized void setStorageFormat(final LootStorageFormat storageFormat)
+	{
+		this.storageFormat = storageFormat;
+	}
+
+	/**
+	 * @param conversionExecutor runs the conversion of files stored in the other storage format, or null to stop converting them
+	 */
+	public synchronized void setConversionExecutor(@Nullable final Executor conversionExecutor)
+	{
+		this.conversionExecutor = conversionExecutor;
+	}
+
+	/**
+	 * @param epochMillis whether appended records store their date as epoch milliseconds instead of formatted text,
+	 * both are accepted when reading so existing files are unaffected. Rewritten and converted files always use text.
+	 */
+	public void setEpochMillisDates(final boolean epochMillis)
+	{
+		dateAdapter.setWriteEpochMillis(epochMillis);
+	}
+
+	/**
+	 * @param rawParseThreshold minimum file size, in bytes, for JSON Lines files to be parsed straight from their bytes
+	 */
+	public synchronized void setRawParseThreshold(final long rawParseThreshold)
+	{
+		this.rawParseThreshold = rawParseThreshold;
+	}
+
+	private static String npcNameToFileName(final String npcName, final LootStorageFormat format)
+	{
+		return npcName.toLowerCase().trim() + format.getFileExtension();
+	}
+
+	static LootStorageFormat getFormat(final File file)
+	{
+		return file.getName().endsWith(LootStorageFormat.BINARY.getFileExtension()) ? LootStorageFormat.BINARY : LootStorageFormat.JSON_LINES;
+	}
+
+	private static LootStorageFormat getOtherFormat(final LootStorageFormat format)
+	{
+		return format == LootStorageFormat.BINARY ? LootStorageFormat.JSON_LINES : LootStorageFormat.BINARY;
+	}
+
+	/**
+	 * Returns the file records for this npc should be read from and appended to.
+	 * Files stored in the other format are converted to the selected {@link #storageFormat} in the background, the
+	 * existing file keeps being used until that has succeeded so no data is hidden.
+	 */
+	private File getLootFile(final LootRecordType type, final String npcName)
+	{
+		final File folder = eventFolders.get(type);
+		final File file = new File(folder, npcNameToFileName(npcName, storageFormat));
+		final File otherFile = new File(folder, npcNameToFileName(npcName, getOtherFormat(storageFormat)));
+		if (!otherFile.exists())
+		{
+			return file;
+		}
+
+		if (file.exists())
+		{
+			log.warn("Loot data for {} is stored in both formats, only {} will be used", npcName, file.getName());
+			return file;
 		}
+
+		scheduleConversion(type, npcName, otherFile);
+		return otherFile;
 	}
 
-	private static String npcNameToFileName(final String npcName)
+	private static String npcNameToSummaryFileName(final String npcName)
 	{
-		return npcName.toLowerCase().trim() + FILE_EXTENSION;
+		return npcName.toLowerCase().trim() + SUMMARY_EXTENSION;
 	}
 
-	public SetMultimap<LootRecordType, String> getKnownFileNames()
+	/**
+	 * Returns the names from the account's manifest, the folders are only scanned if there isn't a manifest yet.
+	 * @see #reconcileKnownFileNames()
+	 */
+	public synchronized SetMultimap<LootRecordType, String> getKnownFileNames()
 	{
-		final SetMultimap<LootRecordType, String> fileNames = HashMultimap.create();
+		if (manifest == null)
+		{
+			manifest = new LootNameManifest();
+			try
+			{
+				manifest.replaceAll(scanFolders(eventFolders));
+			}
+			catch (IOException e)
+			{
+				log.warn("Error listing loot files for {}: {}", name, e.getMessage());
+			}
+			saveManifest();
+		}
 
-		for (final Map.Entry<LootRecordType, File> entry : eventFolders.entrySet())
+		return manifest.getNames();
+	}
+
+	/**
+	 * Scans the account folders and corrects the manifest for files that were added or removed outside of the plugin.
+	 * The scan doesn't hold the lock so records can still be added, it's repeated if the manifest changed in the meantime.
+	 * @return true if the known file names changed
+	 */
+	public boolean reconcileKnownFileNames()
+	{
+		for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++)
 		{
-			final File[] files = entry.getValue().listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
-			if (files != null)
+			// Queued records may be for files that haven't been created yet
+			flushQueuedRecords();
+
+			final LootNameManifest current;
+			final Map<LootRecordType, File> folders;
+			final int modCount;
+			synchronized (this)
+			{
+				if (manifest == null)
+				{
+					return false;
+				}
+
+				applyWrittenFiles();
+				current = manifest;
+				folders = new HashMap<>(eventFolders);
+				modCount = manifest.getModCount();
+			}
+
+			final Map<LootRecordType, Map<String, LootNameManifest.FileInfo>> scanned;
+			try
+			{
+				scanned = scanFolders(folders);
+			}
+			catch (IOException e)
+			{
+				log.warn("Error listing loot files for {}: {}", name, e.getMessage());
+				return false;
+			}
+
+			synchronized (this)
 			{
-				for (final File f : files)
+				if (manifest != current)
 				{
-					fileNames.put(entry.getKey(), f.getName().replace(FILE_EXTENSION, ""));
+					// The account changed while scanning
+					return false;
 				}
+
+				if (manifest.getModCount() != modCount)
+				{
+					continue;
+				}
+
+				final boolean changed = manifest.replaceAll(scanned);
+				saveManifest();
+				return changed;
 			}
 		}
 
-		return fileNames;
+		log.debug("Loot files for {} kept changing, skipping reconcile", name);
+		return false;
 	}
 
-	public synchronized Collection<LTRecord> loadLootTrackerRecords(LootRecordType recordType, String npcName)
+	private static Map<LootRecordType, Map<String, LootNameManifest.FileInfo>> scanFolders(final Map<LootRecordType, File> folders) throws IOException
 	{
-		final String fileName = npcNameToFileName(npcName);
-		final File file = new File(eventFolders.get(recordType), fileName);
-		final Collection<LTRecord> data = new ArrayList<>();
-
-		try (final BufferedReader br = new BufferedReader(new FileReader(file)))
+		final Map<LootRecordType, Map<String, LootNameManifest.FileInfo>> files = new HashMap<>();
+		for (final Map.Entry<LootRecordType, File> entry : folders.entrySet())
 		{
-			String line;
-			while ((line = br.readLine()) != null)
+			try (final DirectoryStream<Path> stream = Files.newDirectoryStream(entry.getValue().toPath(), LOOT_FILE_GLOB))
 			{
-				// Skips the empty line at end of file
-				if (line.length() > 0)
+				for (final Path path : stream)
 				{
-					final LTRecord r = CUSTOM_GSON.fromJson(line, LTRecord.class);
-					data.add(r);
+					final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+					files.computeIfAbsent(entry.getKey(), k -> new HashMap<>())
+						.put(path.getFileName().toString(), new LootNameManifest.FileInfo(attributes.size(), attributes.lastModifiedTime().toMillis()));
 				}
 			}
+			catch (NoSuchFileException e)
+			{
+				// Nothing has been stored for this record type yet
+			}
+		}
+
+		return files;
+	}
+
+	@Nullable
+	private LootNameManifest readManifest()
+	{
+		final File file = new File(playerFolder, LootNameManifest.FILE_NAME);
+		try (final BufferedReader br = new BufferedReader(new FileReader(file)))
+		{
+			final LootNameManifest manifest = CUSTOM_GSON.fromJson(br, LootNameManifest.class);
+			if (manifest == null || manifest.version != LootNameManifest.VERSION || manifest.files == null)
+			{
+				return null;
+			}
 
+			return manifest;
 		}
 		catch (FileNotFoundException e)
 		{
-			log.debug("File not found: {}", fileName);
+			return null;
+		}
+		catch (IOException | JsonParseException e)
+		{
+			log.debug("Unable to read loot file manifest for {}: {}", name, e.getMessage());
+			return null;
+		}
+	}
+
+	// Replaces the manifest on disk if it has changed since it was last saved
+	private void saveManifest()
+	{
+		if (manifest == null)
+		{
+			return;
+		}
+
+		applyWrittenFiles();
+		if (!manifest.isDirty())
+		{
+			return;
+		}
+
+		final File file = new File(playerFolder, LootNameManifest.FILE_NAME);
+		final File temp = new File(playerFolder, LootNameManifest.FILE_NAME + TEMP_EXTENSION);
+		try
+		{
+			Files.createDirectories(playerFolder.toPath());
+			try (final BufferedWriter out = new BufferedWriter(new FileWriter(temp, false)))
+			{
+				CUSTOM_GSON.toJson(manifest, out);
+			}
+
+			moveReplacing(temp, file);
+			manifest.markSaved();
 		}
-		catch (IOException e)
+		catch (IOException | JsonIOException e)
 		{
-			log.warn("IOException for file {}: {}", fileName, e.getMessage());
+			log.warn("Error writing loot file manifest for {}: {}", name, e.getMessage());
+			temp.delete();
 		}
+	}
 
+	public Collection<LTRecord> loadLootTrackerRecords(LootRecordType recordType, String npcName)
+	{
+		final Collection<LTRecord> data = new ArrayList<>();
+		loadLootTrackerRecords(recordType, npcName, data::add);
 		return data;
 	}
 
-	public synchronized boolean addLootTrackerRecord(LTRecord rec)
+	/**
+	 * Streams every record stored for this npc into the consumer without materializing the entire file.
+	 * @see #loadLootTrackerRecords(LootRecordType, String, long, Consumer)
+	 */
+	public void loadLootTrackerRecords(LootRecordType recordType, String npcName, Consumer<LTRecord> consumer)
+	{
+		loadLootTrackerRecords(recordType, npcName, 0, consumer);
+	}
+
+	/**
+	 * Streams the records stored for this npc, starting at the byte offset, into the consumer.
+	 * @param recordType the record type sub-folder to read from
+	 * @param npcName the npc/event name the records are stored under
+	 * @param offset byte offset to start reading from, should always be the end of a previously read record
+	 * @param consumer receives each record in file order
+	 * @return the byte offset that was read up to or -1 if the file could not be fully read
+	 */
+	public long loadLootTrackerRecords(LootRecordType recordType, String npcName, long offset, Consumer<LTRecord> consumer)
+	{
+		return loadLootTrackerRecords(resolveLootFile(recordType, npcName), offset, consumer);
+	}
+
+	/**
+	 * Streams the records stored in the resolved file, starting at the byte offset, into the consumer.
+	 * @see #loadLootTrackerRecords(LootRecordType, String, long, Consumer)
+	 */
+	public long loadLootTrackerRecords(ResolvedLootFile lootFile, long offset, Consumer<LTRecord> consumer)
+	{
+		return readLootFile(lootFile.getFile(), offset, consumer);
+	}
+
+	/**
+	 * A loot file resolved for reading, along with its generation when it was resolved. Reading, loading the summary
+	 * and storing the updated summary all use the same resolved file so a summary is never stored for a different one.
+	 */
+	@Value
+	public static class ResolvedLootFile
+	{
+		File file;
+		int generation;
+	}
+
+	/**
+	 * Resolves the file records for this npc should be read from and ensures any queued records for it are on disk.
+	 * Only resolving the file needs the lock so different files can be read in parallel.
+	 */
+	public ResolvedLootFile resolveLootFile(final LootRecordType recordType, final String npcName)
 	{
-		// Grab file
-		final String fileName = npcNameToFileName(rec.getName());
-		final File lootFile = new File(eventFolders.get(rec.getType()), fileName);
+		final ResolvedLootFile lootFile;
+		synchronized (this)
+		{
+			final File file = getLootFile(recordType, npcName);
+			lootFile = new ResolvedLootFile(file, getGeneration(file));
+		}
 
-		// Convert entry to JSON
-		final String dataAsString = CUSTOM_GSON.toJson(rec);
+		flushQueuedRecords();
+		return lootFile;
+	}
 
-		// Open File in append mode and write new data
+	private long readLootFile(final File file, final long offset, final Consumer<LTRecord> consumer)
+	{
 		try
 		{
-			final BufferedWriter file = new BufferedWriter(new FileWriter(String.valueOf(lootFile), true));
-			file.append(dataAsString);
-			file.newLine();
-			file.close();
-			return true;
+			if (getFormat(file) == LootStorageFormat.BINARY)
+			{
+				return readBinaryFile(file, offset, consumer);
+			}
+
+			return readJsonFile(file, offset, consumer);
 		}
-		catch (IOException ioe)
+		catch (FileNotFoundException | NoSuchFileException e)
 		{
-			log.warn("Error writing loot data to file {}: {}", fileName, ioe.getMessage());
-			return false;
+			log.debug("File not found: {}", file.getName());
+		}
+		catch (IOException | JsonParseException e)
+		{
+			log.warn("Error reading loot data from file {}: {}", file.getName(), e.getMessage());
 		}
+
+		return -1;
 	}
 
-	public synchronized boolean deleteLootTrackerRecords(final LootRecordType type, String npcName)
+	/**
+	 * A single {@link JsonReader} is driven over the file, in lenient mode so it accepts the newline-delimited values.
+	 */
+	private long readJsonFile(final File file, final long offset, final Consumer<LTRecord> consumer) throws IOException
 	{
-		final String fileName = npcNameToFileName(npcName);
-		final File lootFile = new File(eventFolders.get(type), fileName);
+		if (file.length() >= rawParseThreshold)
+		{
+			return readRawJsonFile(file, offset, consumer);
+		}
 
-		if (lootFile.delete())
+		try (final FileInputStream in = new FileInputStream(file))
 		{
-			log.debug("Deleted loot file: {}", fileName);
-			return true;
+			// Only read up to the current length so the returned offset is accurate even if the file is appended to afterwards
+			final long length = in.getChannel().size();
+			in.getChannel().position(offset);
+
+			final InputStream limited = ByteStreams.limit(in, length - offset);
+			final JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(limited, Charset.defaultCharset())));
+			reader.setLenient(true);
+			while (reader.peek() != JsonToken.END_DOCUMENT)
+			{
+				consumer.accept(CUSTOM_GSON.fromJson(reader, LTRecord.class));
+			}
+
+			return length;
 		}
-		else
+	}
+
+	private long readBinaryFile(final File file, final long offset, final Consumer<LTRecord> consumer) throws IOException
+	{
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
 		{
-			log.debug("Couldn't delete file: {}", fileName);
-			return false;
+			return BinaryRecordFormat.read(channel, readBuffers.get(), offset, consumer).validLength;
 		}
 	}
 
 	/**
-	 * Writes an entire log file based on the passed collection.
-	 * Used when you need to adjust previous data and not just append, such as receiving a pet.
- 	 */
-	public synchronized boolean writeLootTrackerFile(final String npcName, final Collection<LTRecord> loots)
+	 * Scans newline-delimited records from chunks of the file read into a reused buffer, parsing the known record layout
+	 * from the raw bytes with {@link LTRecordByteParser}. Lines the parser doesn't understand are decoded and passed to Gson.
+	 */
+	private long readRawJsonFile(final File file, final long offset, final Consumer<LTRecord> consumer) throws IOException
+	{
+		try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			// Only read up to the current length so the returned offset is accurate even if the file is appended to afterwards
+			final long length = channel.size();
+			final LTRecordByteParser parser = new LTRecordByteParser(dateAdapter);
+			ByteBuffer buffer = readBuffers.get();
+			buffer.clear();
+
+			long position = offset;
+			boolean end = false;
+			while (!end)
+			{
+				// Fill the buffer after the partial line carried over from the previous chunk
+				final int limit = buffer.limit();
+				buffer.limit(buffer.position() + (int) Math.min(buffer.remaining(), length - position));
+				while (buffer.hasRemaining())
+				{
+					final int read = channel.read(buffer, position);
+					if (read < 0)
+					{
+						break;
+					}
+					position += read;
+				}
+				buffer.limit(limit);
+				end = position >= length || buffer.hasRemaining();
+
+				buffer.flip();
+				buffer.position(parseLines(buffer, end, parser, consumer));
+				buffer.compact();
+
+				if (!end && !buffer.hasRemaining())
+				{
+					// A single line is longer than the buffer
+					final ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+					buffer.flip();
+					larger.put(buffer);
+					buffer = larger;
+				}
+			}
+
+			if (buffer.capacity() <= MAX_REUSED_READ_BUFFER_SIZE)
+			{
+				readBuffers.set(buffer);
+			}
+
+			return position;
+		}
+	}
+
+	/**
+	 * Parses every complete line between the buffer's position and limit
+	 * @param end whether the buffer contains the end of the file, so the last line is complete without a line separator
+	 * @return the index of the first byte that wasn't parsed
+	 */
+	private int parseLines(final ByteBuffer buffer, final boolean end, final LTRecordByteParser parser, final Consumer<LTRecord> consumer)
+	{
+		final int limit = buffer.limit();
+		int lineStart = buffer.position();
+		while (lineStart < limit)
+		{
+			int lineEnd = lineStart;
+			while (lineEnd < limit && buffer.get(lineEnd) != '\n')
+			{
+				lineEnd++;
+			}
+
+			if (lineEnd == limit && !end)
+			{
+				// The rest of the line is in the next chunk
+				return lineStart;
+			}
+
+			final int next = lineEnd + 1;
+			// Files written on Windows use \r\n as the line separator
+			if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r')
+			{
+				lineEnd--;
+			}
+
+			if (lineEnd > lineStart)
+			{
+				LTRecord record = parser.parse(buffer, lineStart, lineEnd);
+				if (record == null)
+				{
+					record = CUSTOM_GSON.fromJson(decodeLine(buffer, lineStart, lineEnd), LTRecord.class);
+				}
+
+				// Blank lines are parsed as null
+				if (record != null)
+				{
+					consumer.accept(record);
+				}
+			}
+
+			lineStart = next;
+		}
+
+		return limit;
+	}
+
+	private static String decodeLine(final ByteBuffer buffer, final int start, final int end)
+	{
+		final byte[] bytes = new byte[end - start];
+		final ByteBuffer line = buffer.duplicate();
+		line.position(start);
+		line.get(bytes);
+		return new String(bytes, Charset.defaultCharset());
+	}
+
+	/**
+	 * Loads the summary stored alongside the resolved log file for this npc.
+	 * The summary is discarded if the log file has shrunk or was modified anywhere before the summarized offset.
+	 * @return the summary or null if there isn't a valid one for the log file
+	 */
+	@Nullable
+	public LTSummary loadLootTrackerSummary(LootRecordType recordType, String npcName, ResolvedLootFile resolved)
+	{
+		final File lootFile = resolved.getFile();
+		final File summaryFile = new File(lootFile.getParentFile(), npcNameToSummaryFileName(npcName));
+		if (!summaryFile.exists())
+		{
+			return null;
+		}
+
+		final LTSummary summary;
+		try (final BufferedReader br = new BufferedReader(new FileReader(summaryFile)))
+		{
+			summary = CUSTOM_GSON.fromJson(br, LTSummary.class);
+		}
+		catch (IOException | JsonParseException e)
+		{
+			log.debug("Unable to read loot summary {}: {}", summaryFile.getName(), e.getMessage());
+			return null;
+		}
+
+		if (summary == null || summary.getVersion() != LTSummary.VERSION || summary.getItems() == null)
+		{
+			return null;
+		}
+
+		if (lootFile.length() < summary.getOffset())
+		{
+			log.debug("Loot file {} shrank, ignoring summary", lootFile.getName());
+			return null;
+		}
+
+		// An unchanged modified time means nothing was written to the log since the summary was created
+		if (lootFile.lastModified() != summary.getLastModified())
+		{
+			try
+			{
+				if (checksum(lootFile, summary.getOffset()) != summary.getChecksum())
+				{
+					log.debug("Loot file {} was rewritten, ignoring summary", lootFile.getName());
+					return null;
+				}
+			}
+			catch (IOException e)
+			{
+				log.debug("Unable to verify loot summary {}: {}", summaryFile.getName(), e.getMessage());
+				return null;
+			}
+		}
+
+		return summary;
+	}
+
+	/**
+	 * Writes the summary alongside the resolved log file for this npc, replacing the previous summary once it's complete.
+	 * Nothing is written if the file was replaced or is no longer the one records for this npc are stored in, such as
+	 * after switching accounts or storage formats, as the summary wouldn't match the file that is read next time.
+	 * @param offset the byte offset in the log file the summary was consolidated up to
+	 */
+	public synchronized boolean writeLootTrackerSummary(LootRecordType recordType, String npcName, ResolvedLootFile resolved, LTSummary summary, long offset)
 	{
-		final String fileName = npcNameToFileName(npcName);
-		final File lootFile = new File(playerFolder, fileName);
+		final File lootFile = resolved.getFile();
+		if (!lootFile.equals(getLootFile(recordType, npcName)) || !isUnchanged(lootFile, resolved.getGeneration()) || lootFile.length() < offset)
+		{
+			log.debug("Loot file {} changed since it was read, not storing its summary", lootFile.getName());
+			return false;
+		}
 
+		final File folder = lootFile.getParentFile();
+		final String fileName = npcNameToSummaryFileName(npcName);
+		File temp = null;
 		try
 		{
-			final BufferedWriter file = new BufferedWriter(new FileWriter(String.valueOf(lootFile), false));
-			for (final LTRecord rec : loots)
+			summary.setVersion(LTSummary.VERSION);
+			summary.setOffset(offset);
+			summary.setChecksum(checksum(lootFile, offset));
+			summary.setLastModified(lootFile.lastModified());
+
+			temp = File.createTempFile(fileName, TEMP_EXTENSION, folder);
+			try (final BufferedWriter out = new BufferedWriter(new FileWriter(temp, false)))
 			{
-				// Convert entry to JSON
-				final String dataAsString = CUSTOM_GSON.toJson(rec);
-				file.append(dataAsString);
-				file.newLine();
+				CUSTOM_GSON.toJson(summary, out);
 			}
-			file.close();
 
+			moveReplacing(temp, new File(folder, fileName));
 			return true;
 		}
-		catch (IOException ioe)
+		catch (IOException | JsonIOException e)
 		{
-			log.warn("Error rewriting loot data to file {}: {}", fileName, ioe.getMessage());
+			log.warn("Error writing loot summary to file {}: {}", fileName, e.getMessage());
+			if (temp != null)
+			{
+				temp.delete();
+			}
 			return false;
 		}
 	}
 
-	public synchronized boolean renameUsernameFolderToAccountHash(final String username, final long hash)
+	// CRC32 of the bytes directly before the offset
+	private static long checksum(final File file, final long offset) throws IOException
 	{
-		final File usernameDir = new File(LOOT_RECORD_DIR, username);
-		if (!usernameDir.exists())
+		final int length = (int) Math.min(offset, CHECKSUM_WINDOW);
+		final byte[] bytes = new byte[length];
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "r"))
 		{
-			log.debug("Already rewritten");
-			return true;
+			raf.seek(offset - length);
+			raf.readFully(bytes);
 		}
 
-		final File hashDir = new File(LOOT_RECORD_DIR, String.valueOf(hash));
-		if (hashDir.exists())
+		final CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return crc.getValue();
+	}
+
+	/**
+	 * Queues the record to be appended to its log file by the background writer, never waiting for it
+	 * @return false if the record was discarded because the writer can't keep up
+	 */
+	public synchronized boolean addLootTrackerRecord(LTRecord rec)
+	{
+		ensureFolderExists(rec.getType());
+		final File lootFile = getLootFile(rec.getType(), rec.getName());
+
+		// Records are encoded on the writer thread, so it gets a copy as the record may be modified after it has been queued
+		if (!writeQueue.enqueue(lootFile, copyRecord(rec)))
 		{
-			log.warn("Can't rename username folder to account hash as the folder for this account hash already exists."
-				+ " This was most likely caused by running RL through the Jagex launcher before the migration code was added");
-			log.warn("Username: {} | AccountHash: {}", username, hash);
 			return false;
 		}
 
-		return usernameDir.renameTo(hashDir);
+		if (getManifest().recordAppend(rec.getType(), lootFile))
+		{
+			// Only new names are saved right away, the sizes are saved with the next change or when shutting down
+			saveManifest();
+		}
+		return true;
 	}
 
-	public static void prepareHaPriceMap(ItemManager itemManager, int maxId)
+	private byte[] encodeJson(final LTRecord rec) throws IOException
 	{
-		for (int id = 0; id < maxId; id++)
-		{
-			int haPrice = itemManager.getItemComposition(id).getHaPrice();
-			// Don't bother storing items with a HA price of 0, we can use getOrDefault to fill those in.
-			// Also filters out invalid/unassigned ids, as those return a HA price of 0 as well.
-			if (haPrice != 0) {haPrices.put(id, haPrice);}
-		}
-		haPrices.put(ItemID.COINS, 1);
-		haPrices.put(ItemID.PLATINUM, 1000);
-		log.debug("Finished preparing HA price map");
+		return encodeJson(rec, CUSTOM_GSON.getAdapter(LTRecord.class));
+	}
+
+	// Writes the JSON straight into the encoded bytes rather than building the String first
+	private byte[] encodeJson(final LTRecord rec, final TypeAdapter<LTRecord> adapter) throws IOException
+	{
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		final Writer out = new OutputStreamWriter(bytes, Charset.defaultCharset());
+		adapter.write(CUSTOM_GSON.newJsonWriter(out), rec);
+		out.write(System.lineSeparator());
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static LTRecord copyRecord(final LTRecord rec)
+	{
+		List<LTItemEntry> drops = null;
+		if (rec.getDrops() != null)
+		{
+			drops = new ArrayList<>(rec.getDrops().size());
+			for (final LTItemEntry e : rec.getDrops())
+			{
+				drops.add(new LTItemEntry(e.getName(), e.getId(), e.getQuantity(), e.getPrice(), e.getHaPrice(), e.getAveragedTotalPrice()));
+			}
+		}
+
+		final Date date = rec.getDate() == null ? null : new Date(rec.getDate().getTime());
+		return new LTRecord(rec.getName(), rec.getLevel(), rec.getKillCount(), rec.getType(), drops, date);
+	}
+
+	/**
+	 * Converts the records stored for this npc into the requested format, replacing the file in the other format.
+	 * Records are streamed into a temporary file which is moved into place once complete so no data is lost on failure.
+	 * The lock is only held at the end to copy the records appended to the original file in the meantime, records added
+	 * while the file is being replaced are kept back by the writer and appended to the converted file afterwards.
+	 * Files that fail to convert aren't converted automatically again until the plugin is restarted.
+	 * @return true if the records are now stored in the requested format
+	 */
+	public boolean convertLootTrackerRecords(final LootRecordType type, final String npcName, final LootStorageFormat format)
+	{
+		final File folder;
+		final File source;
+		final File target;
+		final int generation;
+		synchronized (this)
+		{
+			folder = eventFolders.get(type);
+			source = new File(folder, npcNameToFileName(npcName, getOtherFormat(format)));
+			target = new File(folder, npcNameToFileName(npcName, format));
+			generation = getGeneration(source);
+		}
+
+		if (!source.exists())
+		{
+			return true;
+		}
+
+		if (target.exists())
+		{
+			log.warn("Unable to convert {} as {} already exists", source.getName(), target.getName());
+			synchronized (this)
+			{
+				failedConversions.add(source);
+			}
+			return false;
+		}
+
+		flushQueuedRecords();
+		boolean held = false;
+		boolean converted = false;
+		try (final LootFileRewrite rewrite = new LootFileRewrite(target, format))
+		{
+			final long offset = readLootFile(source, 0, rewrite::writeUnchecked);
+			if (offset < 0)
+			{
+				throw new IOException("Unable to read " + source.getName());
+			}
+
+			writeQueue.hold(source);
+			held = true;
+			synchronized (this)
+			{
+				// Nothing can replace either file while the lock is held, so this still holds once the target is moved into place
+				if (!folder.equals(eventFolders.get(type)) || target.exists() || !isUnchanged(source, generation))
+				{
+					log.debug("Loot file {} was replaced while converting it", source.getName());
+					return false;
+				}
+
+				// Keep anything appended since the file was read
+				if (readLootFile(source, offset, rewrite::writeUnchecked) < 0)
+				{
+					throw new IOException("Unable to read " + source.getName());
+				}
+
+				rewrite.commit();
+				converted = true;
+				markRewritten(source);
+				markRewritten(target);
+				writtenFiles.remove(source);
+
+				if (!source.delete())
+				{
+					log.warn("Unable to delete {} after converting it to {}", source.getName(), target.getName());
+				}
+				else
+				{
+					getManifest().remove(type, source.getName());
+				}
+				onFileRewritten(type, npcName, target);
+			}
+		}
+		// Any record that can't be converted has to mark the file as failed, or it would be converted again on every load
+		catch (IOException | RuntimeException e)
+		{
+			log.warn("Error converting loot data from {} to {}: {}", source.getName(), target.getName(), e.getMessage());
+			synchronized (this)
+			{
+				failedConversions.add(source);
+			}
+			return false;
+		}
+		finally
+		{
+			if (held)
+			{
+				// Records added for the source while it was held belong in the converted file
+				writeQueue.release(source, converted ? f -> target : null);
+			}
+		}
+
+		log.debug("Converted {} to {}", source.getName(), target.getName());
+		return true;
+	}
+
+	// Converts the file on the conversion executor unless it's already being converted or failed to convert before
+	private void scheduleConversion(final LootRecordType type, final String npcName, final File source)
+	{
+		if (conversionExecutor == null || failedConversions.contains(source) || !pendingConversions.add(source))
+		{
+			return;
+		}
+
+		final LootStorageFormat format = storageFormat;
+		try
+		{
+			conversionExecutor.execute(() ->
+			{
+				try
+				{
+					convertLootTrackerRecords(type, npcName, format);
+				}
+				finally
+				{
+					synchronized (this)
+					{
+						pendingConversions.remove(source);
+					}
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			pendingConversions.remove(source);
+		}
+	}
+
+	static void moveReplacing(final File source, final File target) throws IOException
+	{
+		try
+		{
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private LootNameManifest getManifest()
+	{
+		if (manifest == null)
+		{
+			manifest = new LootNameManifest();
+		}
+
+		return manifest;
+	}
+
+	// Called from the writer thread, which never takes the lock so a slow write can't stall anything holding it
+	private void onRecordsWritten(final File file, final long size, final long lastModified)
+	{
+		writtenFiles.put(file, new LootNameManifest.FileInfo(size, lastModified));
+	}
+
+	// Updates the manifest with the actual size and modified time of the files written to since it was last used
+	private void applyWrittenFiles()
+	{
+		for (final File file : writtenFiles.keySet())
+		{
+			final LootNameManifest.FileInfo info = writtenFiles.remove(file);
+			if (info == null)
+			{
+				continue;
+			}
+
+			// Writes to the previous account's files are corrected by its next reconcile
+			for (final Map.Entry<LootRecordType, File> folder : eventFolders.entrySet())
+			{
+				if (folder.getValue().equals(file.getParentFile()))
+				{
+					manifest.recordWrite(folder.getKey(), file.getName(), info.getSize(), info.getLastModified());
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ensures any queued records are on disk before the file is read.
+	 * Nothing that waits on the writer thread may hold the lock, so records can always be added in the meantime.
+	 */
+	private void flushQueuedRecords()
+	{
+		writeQueue.flush();
+	}
+
+	/**
+	 * Writes all queued records to disk and stops the background writer, it is restarted by the next added record
+	 */
+	public void shutDown()
+	{
+		writeQueue.stop();
+		synchronized (this)
+		{
+			failedConversions.clear();
+			saveManifest();
+		}
+	}
+
+	/**
+	 * @return the amount of records waiting to be written to disk
+	 */
+	public int getQueuedRecordCount()
+	{
+		return writeQueue.getQueueDepth();
+	}
+
+	/**
+	 * @return the duration of the most recent background flush, in nanoseconds
+	 */
+	public long getLastFlushLatency()
+	{
+		return writeQueue.getLastFlushLatency();
+	}
+
+	public boolean deleteLootTrackerRecords(final LootRecordType type, String npcName)
+	{
+		final File folder;
+		synchronized (this)
+		{
+			folder = eventFolders.get(type);
+		}
+
+		final List<File> lootFiles = new ArrayList<>();
+		for (final LootStorageFormat format : LootStorageFormat.values())
+		{
+			lootFiles.add(new File(folder, npcNameToFileName(npcName, format)));
+		}
+
+		// Holding waits for the writer thread, so it has to happen before taking the lock
+		final List<File> held = new ArrayList<>();
+		try
+		{
+			for (final File lootFile : lootFiles)
+			{
+				writeQueue.hold(lootFile);
+				held.add(lootFile);
+			}
+
+			synchronized (this)
+			{
+				if (!folder.equals(eventFolders.get(type)))
+				{
+					log.debug("Loot folder for {} changed before {} could be deleted", type, npcName);
+					return false;
+				}
+
+				// The summary is useless without its log file
+				new File(folder, npcNameToSummaryFileName(npcName)).delete();
+
+				boolean deleted = false;
+				for (final File lootFile : lootFiles)
+				{
+					final String fileName = lootFile.getName();
+					writtenFiles.remove(lootFile);
+					markRewritten(lootFile);
+
+					if (lootFile.delete())
+					{
+						log.debug("Deleted loot file: {}", fileName);
+						getManifest().remove(type, fileName);
+						deleted = true;
+					}
+					else if (lootFile.exists())
+					{
+						log.debug("Couldn't delete file: {}", fileName);
+					}
+					else
+					{
+						getManifest().remove(type, fileName);
+					}
+				}
+
+				saveManifest();
+				return deleted;
+			}
+		}
+		finally
+		{
+			// Records added while the files were held start a new log
+			held.forEach(f -> writeQueue.release(f, null));
+		}
+	}
+
+	/**
+	 * Replaces the log file for this npc with the passed records.
+	 * Used when you need to adjust previous data and not just append, such as receiving a pet.
+	 * The original file is only replaced once every record is on disk, use
+	 * {@link #compactLootTrackerFile(LootRecordType, String, UnaryOperator, Executor)} for large rewrites.
+	 */
+	public boolean writeLootTrackerFile(final LootRecordType type, final String npcName, final Collection<LTRecord> loots)
+	{
+		final File lootFile;
+		synchronized (this)
+		{
+			ensureFolderExists(type);
+			lootFile = getLootFile(type, npcName);
+		}
+
+		// Records added while the file is held are appended to the rewritten file once it is released
+		writeQueue.hold(lootFile);
+		try (final LootFileRewrite rewrite = new LootFileRewrite(lootFile, getFormat(lootFile)))
+		{
+			for (final LTRecord rec : loots)
+			{
+				rewrite.write(rec);
+			}
+
+			synchronized (this)
+			{
+				if (!lootFile.equals(getLootFile(type, npcName)))
+				{
+					log.debug("Loot file {} was replaced while rewriting it", lootFile.getName());
+					return false;
+				}
+
+				rewrite.commit();
+				markRewritten(lootFile);
+				writtenFiles.remove(lootFile);
+				onFileRewritten(type, npcName, lootFile);
+			}
+		}
+		catch (IOException ioe)
+		{
+			log.warn("Error rewriting loot data to file {}: {}", lootFile.getName(), ioe.getMessage());
+			return false;
+		}
+		finally
+		{
+			writeQueue.release(lootFile, null);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Rewrites the log file for this npc in the background, replacing its records with the result of the transform.
+	 * The lock is only held at the end to append the records added while the transform ran and replace the file.
+	 * @param transform receives every record currently stored and returns the records to keep, e.g. deduplicated
+	 * @param executor runs the read, transform and write
+	 * @return completes with true once the rewritten file has replaced the original
+	 */
+	public CompletableFuture<Boolean> compactLootTrackerFile(final LootRecordType type, final String npcName,
+		final UnaryOperator<List<LTRecord>> transform, final Executor executor)
+	{
+		return CompletableFuture.supplyAsync(() -> compact(type, npcName, transform), executor);
+	}
+
+	private boolean compact(final LootRecordType type, final String npcName, final UnaryOperator<List<LTRecord>> transform)
+	{
+		final File lootFile;
+		final int generation;
+		synchronized (this)
+		{
+			lootFile = getLootFile(type, npcName);
+			generation = getGeneration(lootFile);
+		}
+
+		flushQueuedRecords();
+		final List<LTRecord> records = new ArrayList<>();
+		final long offset = readLootFile(lootFile, 0, records::add);
+		if (offset < 0)
+		{
+			return false;
+		}
+
+		boolean held = false;
+		try (final LootFileRewrite rewrite = new LootFileRewrite(lootFile, getFormat(lootFile)))
+		{
+			for (final LTRecord rec : transform.apply(records))
+			{
+				rewrite.write(rec);
+			}
+
+			// Records added from here on are appended to the compacted file once it is released
+			writeQueue.hold(lootFile);
+			held = true;
+			synchronized (this)
+			{
+				// Nothing can replace the file while the lock is held, so this still holds once the rewrite is moved into place
+				if (!isUnchanged(lootFile, generation) || !lootFile.equals(getLootFile(type, npcName)))
+				{
+					log.debug("Loot file {} was replaced while compacting it", lootFile.getName());
+					return false;
+				}
+
+				// Keep anything appended since the file was read
+				if (readLootFile(lootFile, offset, rewrite::writeUnchecked) < 0)
+				{
+					throw new IOException("Unable to read " + lootFile.getName());
+				}
+
+				rewrite.commit();
+				markRewritten(lootFile);
+				writtenFiles.remove(lootFile);
+				onFileRewritten(type, npcName, lootFile);
+			}
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			log.warn("Error compacting loot data in file {}: {}", lootFile.getName(), e.getMessage());
+			return false;
+		}
+		finally
+		{
+			if (held)
+			{
+				writeQueue.release(lootFile, null);
+			}
+		}
+
+		log.debug("Compacted {} records into {}", records.size(), lootFile.getName());
+		return true;
+	}
+
+	private int getGeneration(final File file)
+	{
+		return generations.getOrDefault(file, 0);
+	}
+
+	private void markRewritten(final File file)
+	{
+		generations.merge(file, 1, Integer::sum);
+	}
+
+	// Whether the file still has the contents it had at this generation, apart from any records appended since
+	private boolean isUnchanged(final File file, final int generation)
+	{
+		return file.exists() && getGeneration(file) == generation;
+	}
+
+	private void onFileRewritten(final LootRecordType type, final String npcName, final File file)
+	{
+		// Summary offsets are only valid for the file they were created from
+		new File(eventFolders.get(type), npcNameToSummaryFileName(npcName)).delete();
+		getManifest().put(type, file);
+		saveManifest();
+	}
+
+	/**
+	 * Streams records into a temporary file next to the target, which is synced to disk and moved over the target
+	 * once complete so a crash or failure part way through never leaves a partially written log file behind.
+	 */
+	private class LootFileRewrite implements Closeable
+	{
+		private final File target;
+		private final File temp;
+		private final LootStorageFormat format;
+		private final FileOutputStream fileOut;
+		private final OutputStream out;
+		private final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		private boolean committed;
+
+		LootFileRewrite(final File target, final LootStorageFormat format) throws IOException
+		{
+			this.target = target;
+			// Every rewrite gets its own file so a compaction and a rewrite of the same file can't share it
+			this.temp = File.createTempFile(target.getName(), TEMP_EXTENSION, target.getParentFile());
+			this.format = format;
+			this.fileOut = new FileOutputStream(temp);
+			this.out = new BufferedOutputStream(fileOut);
+
+			if (format == LootStorageFormat.BINARY)
+			{
+				try
+				{
+					out.write(BinaryRecordFormat.header());
+				}
+				catch (IOException e)
+				{
+					close();
+					throw e;
+				}
+			}
+		}
+
+		void write(final LTRecord rec) throws IOException
+		{
+			out.write(format == LootStorageFormat.BINARY ? BinaryRecordFormat.encode(rec, table) : encodeJson(rec, textDateRecordAdapter));
+		}
+
+		// For use as a record consumer, the exception is rethrown as an UncheckedIOException
+		void writeUnchecked(final LTRecord rec)
+		{
+			try
+			{
+				write(rec);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void commit() throws IOException
+		{
+			out.flush();
+			fileOut.getFD().sync();
+			out.close();
+			moveReplacing(temp, target);
+			committed = true;
+		}
+
+		// Discards the temporary file if it wasn't committed
+		@Override
+		public void close()
+		{
+			if (committed)
+			{
+				return;
+			}
+
+			try
+			{
+				out.close();
+			}
+			catch (IOException e)
+			{
+				log.debug("Error closing {}: {}", temp.getName(), e.getMessage());
+			}
+			temp.delete();
+		}
+	}
+
+	public boolean renameUsernameFolderToAccountHash(final String username, final long hash)
+	{
+		final File usernameDir = new File(lootRecordDir, username);
+		if (!usernameDir.exists())
+		{
+			log.debug("Already rewritten");
+			return true;
+		}
+
+		final File hashDir = new File(lootRecordDir, String.valueOf(hash));
+		if (hashDir.exists())
+		{
+			log.warn("Can't rename username folder to account hash as the folder for this account hash already exists."
+				+ " This was most likely caused by running RL through the Jagex launcher before the migration code was added");
+			log.warn("Username: {} | AccountHash: {}", username, hash);
+			return false;
+		}
+
+		// Open handles prevent renaming the folder on some platforms
+		writeQueue.hold(null);
+		boolean renamed = false;
+		try
+		{
+			synchronized (this)
+			{
+				saveManifest();
+				renamed = usernameDir.renameTo(hashDir);
+			}
+			return renamed;
+		}
+		finally
+		{
+			// Records added while the folder was being renamed follow it to its new location
+			writeQueue.release(null, renamed ? f -> moveIntoFolder(f, usernameDir, hashDir) : null);
+		}
+	}
+
+	private static File moveIntoFolder(final File file, final File from, final File to)
+	{
+		final Path path = file.toPath();
+		if (!path.startsWith(from.toPath()))
+		{
+			return file;
+		}
+
+		return new File(to, from.toPath().relativize(path).toString());
+	}
+
+	public static int getHaPrice(final int id)
+	{
+		final int[] prices = haPrices;
+		return id >= 0 && id < prices.length ? prices[id] : 0;
+	}
+
+	/**
+	 * Replaces the HA price lookup with the prices from the {@link ItemMetadataCache}
+	 * @param prices HA prices indexed by item id
+	 */
+	public static void setHaPrices(final int[] prices)
+	{
+		// Coins and platinum tokens are worth their face value rather than their alch value
+		final int[] withCurrency = Arrays.copyOf(prices, Math.max(prices.length, Math.max(ItemID.COINS, ItemID.PLATINUM) + 1));
+		withCurrency[ItemID.COINS] = 1;
+		withCurrency[ItemID.PLATINUM] = 1000;
+		haPrices = withCurrency;
 	}
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.ui;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+import lombok.Value;
+import net.runelite.client.game.ItemManager;
+import net.runelite.client.util.AsyncBufferedImage;
+import net.runelite.client.util.ImageUtil;
+
+/**
+ * Caches item icons after they have been scaled and had their alpha adjusted so panels being rebuilt can reuse them.
+ * The least recently used icons are evicted once the cache is full.
+ */
+class IconCache
+{
+	static final int ORIGINAL_SIZE = -1;
+
+	private static final int MAX_ENTRIES = 512;
+
+	@Value
+	private static class Key
+	{
+		int itemId;
+		// Only the quantity of stacked items changes the image
+		int quantity;
+		float alpha;
+		int size;
+	}
+
+	private final ItemManager itemManager;
+	private final Map<Key, ImageIcon> icons = new LinkedHashMap<Key, ImageIcon>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, ImageIcon> eldest)
+		{
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	IconCache(final ItemManager itemManager)
+	{
+		this.itemManager = itemManager;
+	}
+
+	/**
+	 * Passes the icon for this item to the callback on the EDT. If the item image hasn't loaded yet the callback is
+	 * given a placeholder first and is called again once the image has loaded.
+	 * @param quantity quantity to display on the icon, only displayed if greater than 1
+	 * @param alpha alpha to apply to the icon, 1 leaves it unchanged
+	 * @param size width and height to scale the icon to or {@link #ORIGINAL_SIZE}
+	 */
+	void getIcon(final int itemId, final int quantity, final float alpha, final int size, final Consumer<ImageIcon> callback)
+	{
+		final boolean stackable = quantity > 1;
+		final Key key = new Key(itemId, stackable ? quantity : 1, alpha, size);
+
+		final ImageIcon cached;
+		synchronized (icons)
+		{
+			cached = icons.get(key);
+		}
+
+		if (cached != null)
+		{
+			runOnEdt(() -> callback.accept(cached));
+			return;
+		}
+
+		final AsyncBufferedImage image = itemManager.getImage(itemId, quantity, stackable);
+		// Use the raw image until it has been processed, it is passed first so it can never replace the processed icon
+		runOnEdt(() -> callback.accept(new ImageIcon(image)));
+		// Runs straight away if the image is already loaded
+		image.onLoaded(() ->
+		{
+			final ImageIcon icon = new ImageIcon(process(image, alpha, size));
+			synchronized (icons)
+			{
+				icons.put(key, icon);
+			}
+			runOnEdt(() -> callback.accept(icon));
+		});
+	}
+
+	private static BufferedImage process(final BufferedImage image, final float alpha, final int size)
+	{
+		BufferedImage processed = image;
+		if (size != ORIGINAL_SIZE)
+		{
+			processed = ImageUtil.resizeImage(processed, size, size);
+		}
+
+		if (alpha != 1f)
+		{
+			processed = ImageUtil.alphaOffset(processed, alpha);
+		}
+
+		return processed;
+	}
+
+	private static void runOnEdt(final Runnable runnable)
+	{
+		if (SwingUtilities.isEventDispatchThread())
+		{
+			runnable.run();
+		}
+		else
+		{
+			SwingUtilities.invokeLater(runnable);
+		}
+	}
+}
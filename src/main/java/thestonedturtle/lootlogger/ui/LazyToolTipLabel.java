@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.ui;
+
+import java.util.function.Supplier;
+import javax.swing.JLabel;
+import javax.swing.ToolTipManager;
+
+/**
+ * Label which only builds its tooltip text the first time it is about to be displayed
+ */
+class LazyToolTipLabel extends JLabel
+{
+	private final Supplier<String> toolTipSupplier;
+	private String toolTip;
+
+	LazyToolTipLabel(final Supplier<String> toolTipSupplier)
+	{
+		this.toolTipSupplier = toolTipSupplier;
+		// Tooltips are normally registered by setToolTipText, which is never called
+		ToolTipManager.sharedInstance().registerComponent(this);
+	}
+
+	@Override
+	public String getToolTipText()
+	{
+		if (toolTip == null)
+		{
+			toolTip = toolTipSupplier.get();
+		}
+
+		return toolTip;
+	}
+}
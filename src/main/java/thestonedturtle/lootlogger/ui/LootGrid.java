@@ -25,67 +25,185 @@
 package thestonedturtle.lootlogger.ui;
 
 import java.awt.Dimension;
-import java.awt.GridLayout;
-import javax.swing.JLabel;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
 import javax.swing.JPanel;
-import javax.swing.SwingConstants;
+import javax.swing.ToolTipManager;
 import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.ColorScheme;
+import net.runelite.client.util.AsyncBufferedImage;
 import net.runelite.client.util.QuantityFormatter;
 import thestonedturtle.lootlogger.ItemValueTypes;
 import thestonedturtle.lootlogger.localstorage.LTItemEntry;
 
 /**
- * Displays an array of {@link LTItemEntry} in a grid with a max of 5 items (columns) per row
+ * Displays an array of {@link LTItemEntry} in a grid with a max of 5 items (columns) per row.
+ * Items are painted directly rather than being added as components, and only the rows inside the area being
+ * repainted are drawn, so a grid costs the same to lay out no matter how many items it holds.
  */
 class LootGrid extends JPanel
 {
 	private static final int ITEMS_PER_ROW = 5;
-	private static final Dimension ITEM_SIZE = new Dimension(40, 40);
+	private static final int ITEM_SIZE = 40;
+	private static final int GAP = 1;
+
+	private LTItemEntry[] items = new LTItemEntry[0];
+	// Per item state kept between updates, keyed by item id
+	private Map<Integer, ItemSlot> itemSlots = new HashMap<>();
+	private int rowSize;
 
 	LootGrid()
 	{
+		ToolTipManager.sharedInstance().registerComponent(this);
 	}
 
 	LootGrid(final LTItemEntry[] itemsToDisplay, final ItemManager itemManager)
 	{
+		this();
 		updateGrid(itemsToDisplay, itemManager);
 	}
 
 	public void updateGrid(final LTItemEntry[] itemsToDisplay, final ItemManager itemManager)
 	{
-		removeAll();
-
 		// Calculates how many rows need to be display to fit all items
 		final int rowSize = ((itemsToDisplay.length % ITEMS_PER_ROW == 0) ? 0 : 1) + itemsToDisplay.length / ITEMS_PER_ROW;
-		setLayout(new GridLayout(rowSize, ITEMS_PER_ROW, 1, 1));
 
-		// Create stacked items from the item list, calculates total price and then displays all the items in the UI.
-		for (int i = 0; i < rowSize * ITEMS_PER_ROW; i++)
+		final Map<Integer, ItemSlot> slots = new HashMap<>(itemsToDisplay.length * 2);
+		for (final LTItemEntry item : itemsToDisplay)
+		{
+			if (item == null)
+			{
+				continue;
+			}
+
+			ItemSlot slot = itemSlots.get(item.getId());
+			if (slot == null)
+			{
+				slot = new ItemSlot();
+			}
+			slot.update(item, itemManager);
+			slots.put(item.getId(), slot);
+		}
+
+		items = itemsToDisplay;
+		itemSlots = slots;
+
+		if (rowSize != this.rowSize)
+		{
+			this.rowSize = rowSize;
+			revalidate();
+		}
+
+		repaint();
+	}
+
+	@Override
+	public Dimension getPreferredSize()
+	{
+		if (isPreferredSizeSet())
+		{
+			return super.getPreferredSize();
+		}
+
+		final Insets insets = getInsets();
+		final int width = ITEMS_PER_ROW * ITEM_SIZE + (ITEMS_PER_ROW - 1) * GAP;
+		final int height = rowSize == 0 ? 0 : rowSize * ITEM_SIZE + (rowSize - 1) * GAP;
+		return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+	}
+
+	@Override
+	protected void paintComponent(final Graphics g)
+	{
+		super.paintComponent(g);
+
+		final Rectangle clip = g.getClipBounds();
+		final Insets insets = getInsets();
+		final int cellWidth = getCellWidth();
+
+		// Only paint the rows intersecting the area being repainted, which is limited to the visible viewport
+		int firstRow = 0;
+		int lastRow = rowSize - 1;
+		if (clip != null)
 		{
-			final JPanel slot = new JPanel();
-			slot.setLayout(new GridLayout(1, 1, 0, 0));
-			slot.setBackground(ColorScheme.DARKER_GRAY_COLOR);
-			slot.setPreferredSize(ITEM_SIZE);
-			if (i < itemsToDisplay.length)
+			firstRow = Math.max(0, (clip.y - insets.top) / (ITEM_SIZE + GAP));
+			lastRow = Math.min(rowSize - 1, (clip.y + clip.height - insets.top) / (ITEM_SIZE + GAP));
+		}
+
+		for (int row = firstRow; row <= lastRow; row++)
+		{
+			final int y = insets.top + row * (ITEM_SIZE + GAP);
+			for (int column = 0; column < ITEMS_PER_ROW; column++)
 			{
-				final LTItemEntry item = itemsToDisplay[i];
-				if (item == null)
+				final int x = insets.left + column * (cellWidth + GAP);
+				g.setColor(ColorScheme.DARKER_GRAY_COLOR);
+				g.fillRect(x, y, cellWidth, ITEM_SIZE);
+
+				final LTItemEntry item = getItem(row * ITEMS_PER_ROW + column);
+				final ItemSlot slot = item == null ? null : itemSlots.get(item.getId());
+				if (slot != null)
 				{
-					continue;
+					final AsyncBufferedImage image = slot.image;
+					g.drawImage(image, x + (cellWidth - image.getWidth()) / 2, y + (ITEM_SIZE - image.getHeight()) / 2, null);
 				}
-				final JLabel itemLabel = new JLabel();
-				itemLabel.setToolTipText(buildToolTip(item));
-				itemLabel.setVerticalAlignment(SwingConstants.CENTER);
-				itemLabel.setHorizontalAlignment(SwingConstants.CENTER);
-				itemManager.getImage(item.getId(), item.getQuantity(), item.getQuantity() > 1).addTo(itemLabel);
-				slot.add(itemLabel);
 			}
+		}
+	}
+
+	@Override
+	public String getToolTipText(final MouseEvent event)
+	{
+		final LTItemEntry item = getItemAt(event.getPoint());
+		if (item == null)
+		{
+			return null;
+		}
 
-			add(slot);
+		final ItemSlot slot = itemSlots.get(item.getId());
+		return slot == null ? null : slot.getToolTip();
+	}
+
+	/**
+	 * @return the item painted at this point or null if there isn't one
+	 */
+	@Nullable
+	private LTItemEntry getItemAt(final Point point)
+	{
+		final Insets insets = getInsets();
+		final int x = point.x - insets.left;
+		final int y = point.y - insets.top;
+		if (x < 0 || y < 0)
+		{
+			return null;
 		}
 
-		repaint();
+		final int column = x / (getCellWidth() + GAP);
+		final int row = y / (ITEM_SIZE + GAP);
+		if (column >= ITEMS_PER_ROW || row >= rowSize)
+		{
+			return null;
+		}
+
+		return getItem(row * ITEMS_PER_ROW + column);
+	}
+
+	@Nullable
+	private LTItemEntry getItem(final int index)
+	{
+		return index < items.length ? items[index] : null;
+	}
+
+	// Cells stretch to fill the width of the grid, the same as a GridLayout would
+	private int getCellWidth()
+	{
+		final Insets insets = getInsets();
+		final int width = getWidth() - insets.left - insets.right;
+		return Math.max(ITEM_SIZE, (width - (ITEMS_PER_ROW - 1) * GAP) / ITEMS_PER_ROW);
 	}
 
 	private static String buildToolTip(final LTItemEntry item)
@@ -105,4 +223,43 @@ class LootGrid extends JPanel
 			+ "<br/>Price (HA): " + QuantityFormatter.quantityToStackSize(haPrice)
 			+ "<br/>Total (HA): " + QuantityFormatter.quantityToStackSize(quantity * haPrice) + "</html>";
 	}
+
+	/**
+	 * Painting state of a single item, the image and tooltip are only recreated when the item changes
+	 */
+	private class ItemSlot
+	{
+		private LTItemEntry item;
+		private AsyncBufferedImage image;
+		// Only built once the item is hovered
+		private String toolTip;
+
+		private void update(final LTItemEntry item, final ItemManager itemManager)
+		{
+			final LTItemEntry previous = this.item;
+			this.item = item;
+
+			if (previous == null || previous.getQuantity() != item.getQuantity())
+			{
+				image = itemManager.getImage(item.getId(), item.getQuantity(), item.getQuantity() > 1);
+				// Blank until loaded, repaint once it is
+				image.onLoaded(LootGrid.this::repaint);
+			}
+
+			if (previous == null || !previous.equals(item))
+			{
+				toolTip = null;
+			}
+		}
+
+		private String getToolTip()
+		{
+			if (toolTip == null)
+			{
+				toolTip = buildToolTip(item);
+			}
+
+			return toolTip;
+		}
+	}
 }
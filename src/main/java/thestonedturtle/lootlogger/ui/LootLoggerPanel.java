@@ -69,17 +69,24 @@ public class LootLoggerPanel extends PluginPanel
 	}
 
 	private final ItemManager itemManager;
+	// Shared by every panel so rebuilding a view reuses the processed icons
+	private final IconCache iconCache;
 	private final LootLoggerPlugin plugin;
 
 	private LootPanel lootPanel;
 	@Getter
 	private LootLog lootLog;
 	private SelectionPanel selectionPanel;
+	// Incremented for every loot log request so only the result of the most recent one is displayed
+	private int lootLogRequestId;
+	// Name of the loot log being loaded, if any
+	private String loadingName;
 
 	public LootLoggerPanel(final ItemManager itemManager, final LootLoggerPlugin plugin)
 	{
 		super(false);
 		this.itemManager = itemManager;
+		this.iconCache = new IconCache(itemManager);
 		this.plugin = plugin;
 
 		this.setBackground(ColorScheme.DARK_GRAY_COLOR);
@@ -90,6 +97,7 @@ public class LootLoggerPanel extends PluginPanel
 
 	public void useLog(final LootLog log)
 	{
+		loadingName = null;
 		lootLog = log;
 		showLootView();
 	}
@@ -103,7 +111,52 @@ public class LootLoggerPanel extends PluginPanel
 			selectionPanel.removeAllCollapsableSections();
 		}
 
-		plugin.requestLootLog(type, name);
+		final int requestId = ++lootLogRequestId;
+		showLoadingView(name);
+		plugin.requestLootLog(type, name, log ->
+		{
+			// Ignore stale results, the user has already moved on to another view
+			if (requestId == lootLogRequestId)
+			{
+				useLog(log);
+			}
+		});
+	}
+
+	// Placeholder shown while the loot log is loaded in the background
+	private void showLoadingView(final String name)
+	{
+		this.removeAll();
+		lootLog = null;
+		lootPanel = null;
+		selectionPanel = null;
+		loadingName = name;
+
+		final PluginErrorPanel loadingPanel = new PluginErrorPanel();
+		loadingPanel.setBorder(new EmptyBorder(10, 25, 10, 25));
+		loadingPanel.setContent(name, "Loading loot data...");
+
+		final JLabel back = createIconLabel(ICON_BACK);
+		back.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(MouseEvent e)
+			{
+				showSelectionView();
+			}
+		});
+		back.setToolTipText("Back to selection screen");
+
+		final JPanel title = new JPanel(new BorderLayout());
+		title.setBorder(new EmptyBorder(10, 8, 0, 8));
+		title.setBackground(BACKGROUND_COLOR);
+		title.add(back, BorderLayout.WEST);
+
+		this.add(title, BorderLayout.NORTH);
+		this.add(loadingPanel, BorderLayout.CENTER);
+
+		this.revalidate();
+		this.repaint();
 	}
 
 	// Loot Selection view
@@ -113,11 +166,19 @@ public class LootLoggerPanel extends PluginPanel
 		lootLog = null;
 		lootPanel = null;
 
+		// Leaving the loading view abandons the request
+		if (loadingName != null)
+		{
+			loadingName = null;
+			lootLogRequestId++;
+			plugin.cancelLootLogRequest();
+		}
+
 		final PluginErrorPanel errorPanel = new PluginErrorPanel();
 		errorPanel.setBorder(new EmptyBorder(10, 25, 10, 25));
 		errorPanel.setContent("Loot Logger", "Select the Activity, Player, or NPC you wish to view loot for");
 
-		selectionPanel = new SelectionPanel(plugin.config.bossButtons(), plugin.config.filterBosses(), plugin.getLootNames(), this, itemManager);
+		selectionPanel = new SelectionPanel(plugin.config.bossButtons(), plugin.config.filterBosses(), plugin.getLootNames(), this, iconCache);
 
 		this.add(errorPanel, BorderLayout.NORTH);
 		this.add(wrapContainer(selectionPanel), BorderLayout.CENTER);
@@ -126,6 +187,15 @@ public class LootLoggerPanel extends PluginPanel
 		this.repaint();
 	}
 
+	// Rebuilds the selection view with the latest names, other views are left as is
+	public void refreshSelectionView()
+	{
+		if (selectionPanel != null)
+		{
+			showSelectionView();
+		}
+	}
+
 	// Loot breakdown view
 	public void showLootView()
 	{
@@ -133,7 +203,7 @@ public class LootLoggerPanel extends PluginPanel
 		selectionPanel = null;
 
 		final JPanel title = createLootViewTitle();
-		lootPanel = new LootPanel(lootLog, plugin.config, itemManager, (lootRecordType, name) -> {
+		lootPanel = new LootPanel(lootLog, plugin.config, itemManager, iconCache, (lootRecordType, name) -> {
 			if (clearData(lootRecordType, name))
 			{
 				requestLootLog(lootRecordType, lootLog.getName());
@@ -297,7 +367,12 @@ public class LootLoggerPanel extends PluginPanel
 		if (lootLog == null)
 		{
 			// Use tab name so when an alias is killed it shows the main boss tab
-			requestLootLog(r.getType(), tab == null ? r.getName() : tab.getName());
+			final String name = tab == null ? r.getName() : tab.getName();
+			// Don't replace a tab the user is waiting on, unless it's the same one so the new record is included
+			if (loadingName == null || loadingName.equalsIgnoreCase(name))
+			{
+				requestLootLog(r.getType(), name);
+			}
 		}
 		else if (lootLog.getName().equalsIgnoreCase(r.getName()) || (tab != null && lootLog.getName().equalsIgnoreCase(tab.getName())))
 		{
@@ -315,6 +390,12 @@ public class LootLoggerPanel extends PluginPanel
 	public void refreshUI()
 	{
 		log.debug("Refreshing UI");
+		if (loadingName != null)
+		{
+			// The loot view will be created with the new config once loading finishes
+			return;
+		}
+
 		if (lootLog == null)
 		{
 			showSelectionView();
@@ -48,6 +48,7 @@ import thestonedturtle.lootlogger.LootLoggerPlugin;
 import thestonedturtle.lootlogger.UniqueItemPlacement;
 import thestonedturtle.lootlogger.data.BossTab;
 import thestonedturtle.lootlogger.data.LootLog;
+import thestonedturtle.lootlogger.data.UniqueCounts;
 import thestonedturtle.lootlogger.data.UniqueItem;
 import thestonedturtle.lootlogger.localstorage.LTItemEntry;
 import thestonedturtle.lootlogger.localstorage.LTRecord;
@@ -63,6 +64,7 @@ class LootPanel extends JPanel
 	private final LootLog lootLog;
 	private final LootLoggerConfig config;
 	private final ItemManager itemManager;
+	private final IconCache iconCache;
 
 	private final BiConsumer<LootRecordType, String> clearData;
 	private final LootGrid lootGrid = new LootGrid();
@@ -73,17 +75,21 @@ class LootPanel extends JPanel
 	@Getter
 	private final Map<String, NamedLootGrid> minionGridMap = new HashMap<>();
 	private final Map<Integer, UniqueItemPanel> uniqueItemPanelMap = new HashMap<>();
+	// Counts currently displayed by the unique item panels
+	private UniqueCounts uniqueCounts = UniqueCounts.EMPTY;
 	private final GridBagConstraints gridBagConstraints = new GridBagConstraints();
 
 	LootPanel(
 		final LootLog log,
 		final LootLoggerConfig config,
 		final ItemManager itemManager,
+		final IconCache iconCache,
 		final BiConsumer<LootRecordType, String> clearData)
 	{
 		this.lootLog = log;
 		this.config = config;
 		this.itemManager = itemManager;
+		this.iconCache = iconCache;
 		this.clearData = clearData;
 
 		setLayout(new GridBagLayout());
@@ -114,13 +120,13 @@ class LootPanel extends JPanel
 		// Create uniques panel
 		if (!config.uniquesPlacement().equals(UniqueItemPlacement.ITEM_BREAKDOWN))
 		{
-			LootLog.recalculateUniques(lootLog, config.includeMinions());
+			uniqueCounts = lootLog.getUniqueCounts(config.includeMinions());
 
 			for (final int position : lootLog.getUniquePositionMap().keySet())
 			{
 				final Collection<UniqueItem> uniques = lootLog.getUniquePositionMap().get(position);
 
-				final UniqueItemPanel p = new UniqueItemPanel(uniques, this.itemManager, this.config.itemMissingAlpha());
+				final UniqueItemPanel p = new UniqueItemPanel(uniques, uniqueCounts, this.iconCache, this.config.itemMissingAlpha());
 				uniqueItemPanelMap.put(position, p);
 				add(p, gridBagConstraints);
 				gridBagConstraints.gridy++;
@@ -139,9 +145,9 @@ class LootPanel extends JPanel
 		add(lootGrid, gridBagConstraints);
 		gridBagConstraints.gridy++;
 
-		int killsLogged = lootLog.getRecords().size();
+		int killsLogged = lootLog.getRecordCount();
 		// Get current KC before adding minions
-		final int currentKillcount = killsLogged > 0 ? lootLog.getRecords().get(killsLogged - 1).getKillCount() : -1;
+		final int currentKillcount = lootLog.getLatestKillCount();
 
 		// Include Main Loot
 		updateMainLootGrid(lootLog);
@@ -155,11 +161,11 @@ class LootPanel extends JPanel
 		{
 			for (final LootLog log : lootLog.getMinionLogs())
 			{
-				if (log.getRecords().isEmpty())
+				if (log.getRecordCount() == 0)
 				{
 					continue;
 				}
-				killsLogged += log.getRecords().size();
+				killsLogged += log.getRecordCount();
 
 				final NamedLootGrid namedGrid = createMinionGrid(log);
 				minionGridMap.put(log.getName().toLowerCase(), namedGrid);
@@ -202,7 +208,7 @@ class LootPanel extends JPanel
 		final LootGrid grid = new LootGrid(itemsToDisplay, itemManager);
 
 		final long logValue = log.getLootValue(false);
-		return new NamedLootGrid(log.getName(), log.getRecords().size(), logValue, grid, log.getType(), clearData);
+		return new NamedLootGrid(log.getName(), log.getRecordCount(), logValue, grid, log.getType(), clearData);
 	}
 
 	private void updateMinionLog(final LootLog log)
@@ -230,7 +236,7 @@ class LootPanel extends JPanel
 		if (minionLog == null)
 		{
 			final LootLog newMinionLog = new LootLog(config, ImmutableList.of(record), record.getName());
-			lootLog.getMinionLogs().add(newMinionLog);
+			lootLog.addMinionLog(newMinionLog);
 
 			final NamedLootGrid grid = createMinionGrid(newMinionLog);
 			minionGridMap.put(newMinionLog.getName().toLowerCase(), grid);
@@ -249,12 +255,19 @@ class LootPanel extends JPanel
 
 	public void refreshPanel(final LootLog lootLog, final boolean minionUpdate)
 	{
-		// Refresh Uniques panel data. Config option would prevent uniqueItemPanelMap from having anything.
-		LootLog.recalculateUniques(lootLog, config.includeMinions());
-		for (final Map.Entry<Integer, UniqueItemPanel> entry : uniqueItemPanelMap.entrySet())
+		// Refresh the Uniques panels whose counts changed. Config option would prevent uniqueItemPanelMap from having anything.
+		final UniqueCounts previousCounts = uniqueCounts;
+		uniqueCounts = lootLog.getUniqueCounts(config.includeMinions());
+		if (uniqueCounts != previousCounts)
 		{
-			final Collection<UniqueItem> uniques = lootLog.getUniquePositionMap().get(entry.getKey());
-			entry.getValue().updatePanel(uniques, itemManager, config.itemMissingAlpha());
+			for (final Map.Entry<Integer, UniqueItemPanel> entry : uniqueItemPanelMap.entrySet())
+			{
+				final Collection<UniqueItem> uniques = lootLog.getUniquePositionMap().get(entry.getKey());
+				if (uniqueCounts.differs(previousCounts, uniques))
+				{
+					entry.getValue().updatePanel(uniques, uniqueCounts, iconCache, config.itemMissingAlpha());
+				}
+			}
 		}
 
 		if (!minionUpdate)
@@ -264,16 +277,16 @@ class LootPanel extends JPanel
 
 		final long totalValue = lootLog.getLootValue();
 
-		int killsLogged = lootLog.getRecords().size();
+		int killsLogged = lootLog.getRecordCount();
 		// Get current KC before adding minion kills
-		final int currentKillcount = killsLogged > 0 ? lootLog.getRecords().get(killsLogged - 1).getKillCount() : -1;
+		final int currentKillcount = lootLog.getLatestKillCount();
 		final boolean isCurrentSessionLog = lootLog.getName().equalsIgnoreCase(LootLoggerPlugin.SESSION_NAME);
 
 		if (isCurrentSessionLog)
 		{
 			killsLogged += lootLog.getMinionLogs()
 				.stream()
-				.mapToInt(l -> l.getRecords().size())
+				.mapToInt(LootLog::getRecordCount)
 				.sum();
 		}
 
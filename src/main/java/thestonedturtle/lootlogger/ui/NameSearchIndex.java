@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.ui;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.text.similarity.JaroWinklerDistance;
+
+/**
+ * Word index over the names shown in the selection panel, built once per set of names.
+ * Each distinct word is lowercased and stored a single time along with the names that contain it,
+ * so a search only has to compare the search terms against the distinct words instead of every word of every name.
+ * Matches are returned as a {@link BitSet} of positions in the list of names the index was built from.
+ */
+class NameSearchIndex
+{
+	private static final JaroWinklerDistance DISTANCE = new JaroWinklerDistance();
+	private static final double FUZZY_THRESHOLD = 0.9;
+	private static final int MAX_CACHED_TERMS = 64;
+
+	private final int size;
+	private final String[] words;
+	// Positions of the names containing the word at the same index
+	private final BitSet[] wordNames;
+
+	// Typing and deleting characters repeats the same terms, only accessed from the EDT
+	private final Map<String, BitSet> termMatches = new LinkedHashMap<String, BitSet>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, BitSet> eldest)
+		{
+			return size() > MAX_CACHED_TERMS;
+		}
+	};
+
+	NameSearchIndex(final List<String> names)
+	{
+		this.size = names.size();
+
+		final Map<String, BitSet> index = new HashMap<>();
+		for (int i = 0; i < names.size(); i++)
+		{
+			for (final String word : names.get(i).toLowerCase().split(" "))
+			{
+				if (!word.isEmpty())
+				{
+					index.computeIfAbsent(word, k -> new BitSet(size)).set(i);
+				}
+			}
+		}
+
+		this.words = new String[index.size()];
+		this.wordNames = new BitSet[index.size()];
+		int i = 0;
+		for (final Map.Entry<String, BitSet> entry : index.entrySet())
+		{
+			words[i] = entry.getKey();
+			wordNames[i] = entry.getValue();
+			i++;
+		}
+	}
+
+	/**
+	 * Finds the names where every search term is contained in, or closely resembles, one of its words
+	 * @param searchText space separated search terms
+	 * @return positions of the matching names
+	 */
+	BitSet search(final String searchText)
+	{
+		final BitSet result = new BitSet(size);
+		result.set(0, size);
+
+		for (final String term : searchText.toLowerCase().split(" "))
+		{
+			if (term.isEmpty())
+			{
+				continue;
+			}
+
+			result.and(matchTerm(term));
+			if (result.isEmpty())
+			{
+				break;
+			}
+		}
+
+		return result;
+	}
+
+	private BitSet matchTerm(final String term)
+	{
+		BitSet matches = termMatches.get(term);
+		if (matches != null)
+		{
+			return matches;
+		}
+
+		matches = new BitSet(size);
+		for (int i = 0; i < words.length; i++)
+		{
+			final String word = words[i];
+			if (word.contains(term) || DISTANCE.apply(word, term) > FUZZY_THRESHOLD)
+			{
+				matches.or(wordNames[i]);
+			}
+		}
+
+		termMatches.put(term, matches);
+		return matches;
+	}
+}
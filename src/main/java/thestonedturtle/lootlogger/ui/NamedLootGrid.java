@@ -86,7 +86,7 @@ public class NamedLootGrid extends JPanel
 	void updateGrid(final LootLog log, final LTItemEntry[] itemsToDisplay, final ItemManager itemManager)
 	{
 		price = log.getLootValue(false);
-		namePanel.updateLabel(log.getName(), log.getRecords().size(), price);
+		namePanel.updateLabel(log.getName(), log.getRecordCount(), price);
 
 		grid.updateGrid(itemsToDisplay, itemManager);
 
@@ -26,46 +26,38 @@ package thestonedturtle.lootlogger.ui;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
-import javax.annotation.Nullable;
 import javax.swing.BorderFactory;
-import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
+import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import lombok.Getter;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.DynamicGridLayout;
 import net.runelite.client.ui.PluginPanel;
 import net.runelite.client.ui.components.IconTextField;
 import net.runelite.client.ui.components.materialtabs.MaterialTab;
 import net.runelite.client.ui.components.materialtabs.MaterialTabGroup;
-import net.runelite.client.util.AsyncBufferedImage;
 import net.runelite.client.util.Text;
 import net.runelite.http.api.loottracker.LootRecordType;
-import org.apache.commons.text.similarity.JaroWinklerDistance;
 import thestonedturtle.lootlogger.LootLoggerPlugin;
 import thestonedturtle.lootlogger.data.BossTab;
 
@@ -74,16 +66,23 @@ class SelectionPanel extends JPanel
 	private final static Color BACKGROUND_COLOR = ColorScheme.DARK_GRAY_COLOR;
 	private final static Color BUTTON_COLOR = ColorScheme.DARKER_GRAY_COLOR;
 	private final static Color BUTTON_HOVER_COLOR = ColorScheme.DARKER_GRAY_HOVER_COLOR;
-	private static final JaroWinklerDistance DISTANCE = new JaroWinklerDistance();
+	// Delay after the last keystroke before the names are filtered
+	private static final int SEARCH_DELAY_MS = 150;
 
 	private final SetMultimap<LootRecordType, String> names;
 	private final LootLoggerPanel parent;
-	private final ItemManager itemManager;
+	private final IconCache iconCache;
 
 	private final IconTextField searchBar = new IconTextField();
 	@Getter
 	private final JPanel namePanel = new JPanel();
 	private final List<JPanel> panels = new ArrayList<>();
+	// Name panels in the order they were indexed, each section holds a consecutive range of them
+	private final List<JPanel> namePanels = new ArrayList<>();
+	private final List<JPanel> sections = new ArrayList<>();
+	private final List<Integer> sectionEnds = new ArrayList<>();
+	private final Timer searchTimer = new Timer(SEARCH_DELAY_MS, e -> filterNamePanels());
+	private NameSearchIndex searchIndex;
 
 	private boolean bossButtonsEnabled;
 	private boolean filterBosses;
@@ -93,11 +92,11 @@ class SelectionPanel extends JPanel
 		final boolean filterBosses,
 		final SetMultimap<LootRecordType, String> names,
 		final LootLoggerPanel parent,
-		final ItemManager itemManager)
+		final IconCache iconCache)
 	{
 		this.names = names == null ? HashMultimap.create() : names;
 		this.parent = parent;
-		this.itemManager = itemManager;
+		this.iconCache = iconCache;
 		this.bossButtonsEnabled = bossButtonsEnabled;
 		this.filterBosses = filterBosses;
 
@@ -113,21 +112,22 @@ class SelectionPanel extends JPanel
 			@Override
 			public void insertUpdate(DocumentEvent e)
 			{
-				onSearchBarChanged();
+				searchTimer.restart();
 			}
 
 			@Override
 			public void removeUpdate(DocumentEvent e)
 			{
-				onSearchBarChanged();
+				searchTimer.restart();
 			}
 
 			@Override
 			public void changedUpdate(DocumentEvent e)
 			{
-				onSearchBarChanged();
+				searchTimer.restart();
 			}
 		});
+		searchTimer.setRepeats(false);
 
 		namePanel.setLayout(new GridBagLayout());
 
@@ -157,7 +157,7 @@ class SelectionPanel extends JPanel
 		this.add(searchBar, c);
 		c.gridy++;
 
-		addNamesToPanel(this.names);
+		addNamesToPanel();
 		this.add(namePanel, c);
 	}
 
@@ -182,11 +182,10 @@ class SelectionPanel extends JPanel
 		return container;
 	}
 
-	private void addNamesToPanel(final SetMultimap<LootRecordType, String> names)
+	// Creates every name panel once, searching only toggles their visibility
+	private void addNamesToPanel()
 	{
-		removeAllCollapsableSections();
-		namePanel.removeAll();
-
+		final List<String> indexedNames = new ArrayList<>();
 		final GridBagConstraints c = new GridBagConstraints();
 		c.fill = GridBagConstraints.HORIZONTAL;
 		c.weightx = 1;
@@ -201,36 +200,36 @@ class SelectionPanel extends JPanel
 				continue;
 			}
 
-			final JPanel section = createCollapseableSection(type, names.get(type));
-			if (section != null)
+			// Filter out boss tabs if the config toggle is enabled
+			final Set<String> sectionNames = new TreeSet<>();
+			for (final String name : names.get(type))
 			{
-				namePanel.add(section, c);
-				c.gridy++;
+				final BossTab b = bossButtonsEnabled && filterBosses ? BossTab.getByName(name) : null;
+				if (b == null || !b.getType().equals(type))
+				{
+					sectionNames.add(name);
+				}
 			}
-		}
 
-		namePanel.revalidate();
-	}
-
-	@Nullable
-	private JPanel createCollapseableSection(final LootRecordType type, Set<String> names)
-	{
-		// Filter out boss tabs if the config toggle is enabled
-		names = names.stream().filter((n) ->
-		{
-			if (!bossButtonsEnabled || !filterBosses)
+			if (sectionNames.isEmpty())
 			{
-				return true;
+				continue;
 			}
 
-			BossTab b = BossTab.getByName(n);
-			return b == null || !b.getType().equals(type);
-		}).collect(Collectors.toSet());
-		if (names.isEmpty())
-		{
-			return null;
+			final JPanel section = createCollapseableSection(type, sectionNames);
+			indexedNames.addAll(sectionNames);
+			sections.add(section);
+			sectionEnds.add(namePanels.size());
+			namePanel.add(section, c);
+			c.gridy++;
 		}
 
+		searchIndex = new NameSearchIndex(indexedNames);
+		namePanel.revalidate();
+	}
+
+	private JPanel createCollapseableSection(final LootRecordType type, final Set<String> names)
+	{
 		final JPanel container = new JPanel(new DynamicGridLayout(0, 1));
 		final JPanel panel = new JPanel(new GridBagLayout());
 		panel.setBorder(new EmptyBorder(0, 8, 0, 8));
@@ -285,9 +284,11 @@ class SelectionPanel extends JPanel
 		c.gridy = 0;
 		c.insets = new Insets(2, 0, 2, 0);
 
-		for (final String name : new TreeSet<>(names))
+		for (final String name : names)
 		{
-			panel.add(createNamePanel(type, name), c);
+			final JPanel p = createNamePanel(type, name);
+			namePanels.add(p);
+			panel.add(p, c);
 			c.gridy++;
 		}
 		container.add(panel);
@@ -377,18 +378,12 @@ class SelectionPanel extends JPanel
 			});
 
 			// Attach Icon to the Tab
-			final AsyncBufferedImage image = itemManager.getImage(tab.getItemID());
-			final Runnable resize = () ->
-			{
-				materialTab.setIcon(new ImageIcon(image.getScaledInstance(35, 35, Image.SCALE_SMOOTH)));
-				materialTab.setOpaque(true);
-				materialTab.setBackground(BUTTON_COLOR);
-				materialTab.setHorizontalAlignment(SwingConstants.CENTER);
-				materialTab.setVerticalAlignment(SwingConstants.CENTER);
-				materialTab.setPreferredSize(new Dimension(35, 35));
-			};
-			image.onLoaded(resize);
-			resize.run();
+			materialTab.setOpaque(true);
+			materialTab.setBackground(BUTTON_COLOR);
+			materialTab.setHorizontalAlignment(SwingConstants.CENTER);
+			materialTab.setVerticalAlignment(SwingConstants.CENTER);
+			materialTab.setPreferredSize(new Dimension(35, 35));
+			iconCache.getIcon(tab.getItemID(), 1, 1f, 35, materialTab::setIcon);
 
 			thisTabGroup.addTab(materialTab);
 		}
@@ -400,48 +395,36 @@ class SelectionPanel extends JPanel
 		return container;
 	}
 
-	private void onSearchBarChanged()
+	private void filterNamePanels()
 	{
 		final String text = searchBar.getText();
-		if (Strings.isNullOrEmpty(text))
-		{
-			addNamesToPanel(this.names);
-		}
-		else
-		{
-			addNamesToPanel(filterNames(this.names, text));
-		}
-	}
+		final BitSet matches = Strings.isNullOrEmpty(text) ? null : searchIndex.search(text);
 
-	private SetMultimap<LootRecordType, String> filterNames(final SetMultimap<LootRecordType, String> nameMap, final String searchText)
-	{
-		final String[] searchTerms = searchText.toLowerCase().split(" ");
-		return nameMap.entries().stream()
-			.filter(entry -> matchesSearchTerm(entry.getValue(), searchTerms))
-			.collect(Multimaps.toMultimap(
-				Map.Entry::getKey,
-				Map.Entry::getValue,
-				HashMultimap::create
-				)
-			);
-	}
-
-	private static boolean matchesSearchTerm(final String name, final String[] terms)
-	{
-		for (final String term : terms)
+		int start = 0;
+		for (int s = 0; s < sections.size(); s++)
 		{
-			if (Arrays.stream(name.toLowerCase().split(" ")).noneMatch((nameTerm ->
-				nameTerm.contains(term) || DISTANCE.apply(nameTerm, term) > 0.9)))
+			final int end = sectionEnds.get(s);
+			boolean sectionVisible = false;
+			for (int i = start; i < end; i++)
 			{
-				return false;
+				final boolean visible = matches == null || matches.get(i);
+				namePanels.get(i).setVisible(visible);
+				sectionVisible |= visible;
 			}
+
+			// Hide the header of sections without any matches
+			sections.get(s).setVisible(sectionVisible);
+			start = end;
 		}
 
-		return true;
+		namePanel.revalidate();
+		namePanel.repaint();
 	}
 
 	public void removeAllCollapsableSections()
 	{
+		searchTimer.stop();
+
 		// Removing each panel individually drastically increases performance when there's a large number of name panels
 		for (final JPanel p: panels)
 		{
@@ -28,20 +28,15 @@ import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.image.BufferedImage;
 import java.util.Collection;
-import javax.swing.ImageIcon;
-import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import lombok.Getter;
-import net.runelite.client.game.ItemManager;
 import net.runelite.client.ui.ColorScheme;
 import net.runelite.client.ui.PluginPanel;
-import net.runelite.client.util.AsyncBufferedImage;
-import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.QuantityFormatter;
+import thestonedturtle.lootlogger.data.UniqueCounts;
 import thestonedturtle.lootlogger.data.UniqueItem;
 
 @Getter
@@ -49,7 +44,7 @@ class UniqueItemPanel extends JPanel
 {
 	final JPanel panel = new JPanel();
 
-	UniqueItemPanel(final Collection<UniqueItem> items, final ItemManager itemManager, final int itemMissingAlpha)
+	UniqueItemPanel(final Collection<UniqueItem> items, final UniqueCounts counts, final IconCache iconCache, final int itemMissingAlpha)
 	{
 		this.setLayout(new BorderLayout());
 		this.setBackground(ColorScheme.DARKER_GRAY_COLOR);
@@ -61,10 +56,10 @@ class UniqueItemPanel extends JPanel
 
 		this.add(panel, BorderLayout.NORTH);
 
-		updatePanel(items, itemManager, itemMissingAlpha);
+		updatePanel(items, counts, iconCache, itemMissingAlpha);
 	}
 
-	public void updatePanel(final Collection<UniqueItem> items, final ItemManager itemManager, final int itemMissingAlpha)
+	public void updatePanel(final Collection<UniqueItem> items, final UniqueCounts counts, final IconCache iconCache, final int itemMissingAlpha)
 	{
 		panel.removeAll();
 		float alphaMissing = itemMissingAlpha / 100f;
@@ -79,25 +74,19 @@ class UniqueItemPanel extends JPanel
 		// Add each Unique Item icon to the panel
 		for (final UniqueItem l : items)
 		{
-			final int quantity = l.getQty();
-			final AsyncBufferedImage image = itemManager.getImage(l.getItemID(), quantity, quantity > 1);
-
+			final int quantity = counts.get(l);
 			final float alpha = (quantity > 0 ? 1.0f : alphaMissing);
-			final BufferedImage opaque = ImageUtil.alphaOffset(image, alpha);
 
-			final JLabel icon = new JLabel();
-			icon.setToolTipText(buildToolTip(l, quantity));
-			icon.setIcon(new ImageIcon(opaque));
+			final LazyToolTipLabel icon = new LazyToolTipLabel(() -> buildToolTip(l, quantity));
 			icon.setVerticalAlignment(SwingConstants.CENTER);
 			icon.setHorizontalAlignment(SwingConstants.CENTER);
 			panel.add(icon, c);
 			c.gridx++;
 
-			// in case the image is blank we will refresh it upon load
-			// Should only trigger if image hasn't been added
-			image.onLoaded(() ->
+			// Called again once loaded in case the image is still blank
+			iconCache.getIcon(l.getItemID(), quantity, alpha, IconCache.ORIGINAL_SIZE, i ->
 			{
-				icon.setIcon(new ImageIcon(ImageUtil.alphaOffset(image, alpha)));
+				icon.setIcon(i);
 				icon.revalidate();
 				icon.repaint();
 			});
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntIndexMapTest
+{
+	@Test
+	public void testPutAndGet()
+	{
+		final IntIndexMap map = new IntIndexMap();
+		assertTrue(map.isEmpty());
+		assertEquals(IntIndexMap.MISSING, map.get(0));
+
+		map.put(0, 3);
+		map.put(-1, 0);
+		map.put(Integer.MIN_VALUE, 1);
+		map.put(Integer.MAX_VALUE, 2);
+
+		assertEquals(4, map.size());
+		assertEquals(3, map.get(0));
+		assertEquals(0, map.get(-1));
+		assertEquals(1, map.get(Integer.MIN_VALUE));
+		assertEquals(2, map.get(Integer.MAX_VALUE));
+		assertFalse(map.containsKey(1));
+	}
+
+	@Test
+	public void testPutReplacesIndex()
+	{
+		final IntIndexMap map = new IntIndexMap();
+		map.put(995, 1);
+		map.put(995, 7);
+
+		assertEquals(1, map.size());
+		assertEquals(7, map.get(995));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeIndexIsRejected()
+	{
+		new IntIndexMap().put(995, IntIndexMap.MISSING);
+	}
+
+	@Test
+	public void testGrowsPastExpectedSize()
+	{
+		final IntIndexMap map = new IntIndexMap(2);
+		final Map<Integer, Integer> expected = new HashMap<>();
+		final Random random = new Random(42);
+		// Sequential item ids along with random keys that collide more often
+		for (int i = 0; i < 5000; i++)
+		{
+			final int key = i % 2 == 0 ? i : random.nextInt();
+			map.put(key, i);
+			expected.put(key, i);
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (final Map.Entry<Integer, Integer> entry : expected.entrySet())
+		{
+			assertEquals((int) entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void testClear()
+	{
+		final IntIndexMap map = new IntIndexMap();
+		for (int i = 0; i < 100; i++)
+		{
+			map.put(i, i);
+		}
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey(50));
+
+		map.put(50, 1);
+		assertEquals(1, map.get(50));
+		assertEquals(1, map.size());
+	}
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import net.runelite.http.api.loottracker.LootRecordType;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryRecordFormatTest
+{
+	private static final String[] RECORDS = {
+		"{\"name\":\"Vorkath\",\"level\":732,\"killCount\":51,\"type\":\"NPC\",\"drops\":[{\"name\":\"Dragon bones\",\"id\":536,\"quantity\":2,\"price\":2331},{\"name\":\"Coins\",\"id\":995,\"quantity\":35412,\"price\":1}],\"date\":1709493242000}",
+		"{\"name\":\"Vorkath\",\"level\":732,\"killCount\":52,\"type\":\"NPC\",\"drops\":[{\"name\":\"Dragon bones\",\"id\":536,\"quantity\":2,\"price\":2331},{\"name\":\"Vorkath's head\",\"id\":21907,\"quantity\":1,\"price\":68913}],\"date\":1709493391123}",
+		"{\"name\":\"Barrows\",\"level\":-1,\"killCount\":-1,\"type\":\"EVENT\",\"drops\":[],\"date\":null}",
+		"{\"name\":\"Clue Scroll (\u00c9lite)\",\"level\":0,\"killCount\":7,\"type\":null,\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":2147483647,\"price\":-9223372036854775808}],\"date\":-1}",
+	};
+
+	// Around every varint length boundary, along with the extremes zigzag encoding has to handle
+	private static final int[] INT_VALUES = {
+		Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -8193, -8192, -65, -64, -1, 0, 1, 63, 64, 127, 128, 8191, 8192,
+		16383, 16384, 2097151, 2097152, Integer.MAX_VALUE - 1, Integer.MAX_VALUE
+	};
+	private static final long[] LONG_VALUES = {
+		Long.MIN_VALUE, Long.MIN_VALUE + 1, (long) Integer.MIN_VALUE - 1, -65, -64, -1, 0, 1, 63, 64,
+		(long) Integer.MAX_VALUE + 1, 1L << 56, Long.MAX_VALUE - 1, Long.MAX_VALUE
+	};
+
+	private final LootRecordDateAdapter dateAdapter = new LootRecordDateAdapter();
+	private final LTItemEntryAdapter itemAdapter = new LTItemEntryAdapter();
+	private final Gson gson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, dateAdapter)
+		.registerTypeAdapter(LTItemEntry.class, itemAdapter)
+		.registerTypeAdapter(LTRecord.class, new LTRecordAdapter(dateAdapter, itemAdapter))
+		.create();
+
+	@Test
+	public void testJsonRoundTrip() throws IOException
+	{
+		final List<LTRecord> records = new ArrayList<>();
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		for (final String json : RECORDS)
+		{
+			final LTRecord record = gson.fromJson(json, LTRecord.class);
+			records.add(record);
+			file.write(BinaryRecordFormat.encode(record, table));
+		}
+
+		final byte[] bytes = file.toByteArray();
+		final List<LTRecord> decoded = new ArrayList<>();
+		final BinaryRecordFormat.ReadResult result = BinaryRecordFormat.read(ByteBuffer.wrap(bytes), 0, decoded::add);
+
+		assertEquals(bytes.length, result.validLength);
+		assertEquals(records, decoded);
+		for (int i = 0; i < records.size(); i++)
+		{
+			assertEquals(gson.toJson(records.get(i)), gson.toJson(decoded.get(i)));
+		}
+	}
+
+	@Test
+	public void testNullDropsAreStoredAsEmpty() throws IOException
+	{
+		final LTRecord record = gson.fromJson("{\"name\":\"Barrows\",\"level\":-1,\"killCount\":-1,\"type\":\"EVENT\",\"drops\":null,\"date\":null}", LTRecord.class);
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		file.write(BinaryRecordFormat.encode(record, new BinaryRecordFormat.StringTable()));
+
+		final List<LTRecord> decoded = new ArrayList<>();
+		BinaryRecordFormat.read(ByteBuffer.wrap(file.toByteArray()), 0, decoded::add);
+
+		assertEquals(1, decoded.size());
+		assertEquals(record.getName(), decoded.get(0).getName());
+		assertEquals(0, decoded.get(0).getDrops().size());
+	}
+
+	@Test
+	public void testExtremeValuesRoundTrip() throws IOException
+	{
+		final List<LTRecord> records = new ArrayList<>();
+		for (int i = 0; i < INT_VALUES.length; i++)
+		{
+			final int value = INT_VALUES[i];
+			final long longValue = LONG_VALUES[i % LONG_VALUES.length];
+			final LTItemEntry entry = new LTItemEntry("Item " + i, value, value, longValue, LootRecordWriter.getHaPrice(value), longValue * value);
+			records.add(new LTRecord("Npc " + i, value, value, LootRecordType.NPC, Collections.singletonList(entry), new Date(longValue)));
+		}
+
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		for (final LTRecord record : records)
+		{
+			file.write(BinaryRecordFormat.encode(record, table));
+		}
+
+		final byte[] bytes = file.toByteArray();
+		final List<LTRecord> decoded = new ArrayList<>();
+		final BinaryRecordFormat.ReadResult result = BinaryRecordFormat.read(ByteBuffer.wrap(bytes), 0, decoded::add);
+
+		assertEquals(bytes.length, result.validLength);
+		assertEquals(records, decoded);
+	}
+
+	@Test
+	public void testReadFromOffset() throws IOException
+	{
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		file.write(BinaryRecordFormat.encode(gson.fromJson(RECORDS[0], LTRecord.class), table));
+		final int offset = file.size();
+		final LTRecord second = gson.fromJson(RECORDS[1], LTRecord.class);
+		file.write(BinaryRecordFormat.encode(second, table));
+
+		final List<LTRecord> decoded = new ArrayList<>();
+		BinaryRecordFormat.read(ByteBuffer.wrap(file.toByteArray()), offset, decoded::add);
+
+		// Strings defined before the offset are still resolved
+		assertEquals(1, decoded.size());
+		assertEquals(second, decoded.get(0));
+	}
+
+	@Test
+	public void testRecordOverrunningBlockIsSkipped() throws IOException
+	{
+		final LTRecord first = gson.fromJson(RECORDS[0], LTRecord.class);
+		final LTRecord second = gson.fromJson(RECORDS[1], LTRecord.class);
+		final LTRecord third = gson.fromJson(RECORDS[2], LTRecord.class);
+
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		final byte[] firstBytes = BinaryRecordFormat.encode(first, table);
+		final byte[] secondBytes = BinaryRecordFormat.encode(second, table);
+		final byte[] thirdBytes = BinaryRecordFormat.encode(third, table);
+
+		// The second record only defines one new string, find its record block after that string block
+		final int recordStart = 2 + secondBytes[1];
+		final int payloadLength = secondBytes[recordStart + 1];
+		// Shorten the record block by a byte so the record would have to read into the next block
+		final byte[] corrupted = new byte[recordStart + 1 + payloadLength];
+		System.arraycopy(secondBytes, 0, corrupted, 0, recordStart + 1);
+		corrupted[recordStart + 1] = (byte) (payloadLength - 1);
+		System.arraycopy(secondBytes, recordStart + 2, corrupted, recordStart + 2, payloadLength - 1);
+
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		file.write(firstBytes);
+		file.write(corrupted);
+		file.write(thirdBytes);
+		final byte[] bytes = file.toByteArray();
+
+		final List<LTRecord> decoded = new ArrayList<>();
+		final BinaryRecordFormat.ReadResult result = BinaryRecordFormat.read(ByteBuffer.wrap(bytes), 0, decoded::add);
+
+		assertEquals(bytes.length, result.validLength);
+		assertEquals(2, decoded.size());
+		assertEquals(first, decoded.get(0));
+		assertEquals(third, decoded.get(1));
+	}
+
+	@Test
+	public void testPartialBlockIsNotValid() throws IOException
+	{
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		file.write(BinaryRecordFormat.encode(gson.fromJson(RECORDS[0], LTRecord.class), table));
+		final int validLength = file.size();
+		final byte[] next = BinaryRecordFormat.encode(gson.fromJson(RECORDS[1], LTRecord.class), table);
+		file.write(next, 0, next.length - 3);
+
+		final List<LTRecord> decoded = new ArrayList<>();
+		final BinaryRecordFormat.ReadResult result = BinaryRecordFormat.read(ByteBuffer.wrap(file.toByteArray()), 0, decoded::add);
+
+		// The string block defining the second record's new item name is complete, only the record block isn't
+		assertEquals(validLength + 2 + next[1], result.validLength);
+		assertEquals(1, decoded.size());
+	}
+
+	@Test
+	public void testChannelReadMatchesBufferRead() throws IOException
+	{
+		final ByteArrayOutputStream file = new ByteArrayOutputStream();
+		file.write(BinaryRecordFormat.header());
+		final BinaryRecordFormat.StringTable table = new BinaryRecordFormat.StringTable();
+		final List<Integer> offsets = new ArrayList<>();
+		for (int i = 0; i < 40; i++)
+		{
+			// Some records are far larger than the read buffer
+			final List<LTItemEntry> drops = new ArrayList<>();
+			for (int d = 0; d < (i % 10 == 3 ? 500 : i % 4); d++)
+			{
+				drops.add(new LTItemEntry("Item " + (i * 7 + d) % 60, d, i + 1, d * 5L, LootRecordWriter.getHaPrice(d), d * 5L * (i + 1)));
+			}
+
+			offsets.add(file.size());
+			file.write(BinaryRecordFormat.encode(new LTRecord("Npc " + i % 3, i, i, LootRecordType.NPC, drops, new Date(i * 1000L)), table));
+		}
+		final byte[] next = BinaryRecordFormat.encode(gson.fromJson(RECORDS[3], LTRecord.class), table);
+		file.write(next, 0, next.length - 3);
+		final byte[] bytes = file.toByteArray();
+
+		final File temp = File.createTempFile("lootlogger", ".bin");
+		try (final FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE, StandardOpenOption.READ))
+		{
+			channel.write(ByteBuffer.wrap(bytes));
+			for (final int bufferSize : new int[]{16, 256, 1 << 16})
+			{
+				for (final int first : new int[]{0, 17, 39})
+				{
+					final int offset = first == 0 ? 0 : offsets.get(first);
+					final List<LTRecord> expected = new ArrayList<>();
+					final BinaryRecordFormat.ReadResult expectedResult = BinaryRecordFormat.read(ByteBuffer.wrap(bytes), offset, expected::add);
+					final List<LTRecord> decoded = new ArrayList<>();
+					final BinaryRecordFormat.ReadResult result = BinaryRecordFormat.read(channel, ByteBuffer.allocate(bufferSize), offset, decoded::add);
+
+					assertEquals(expectedResult.validLength, result.validLength);
+					assertEquals(40 - first, decoded.size());
+					assertEquals(expected, decoded);
+				}
+			}
+		}
+		finally
+		{
+			temp.delete();
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+import net.runelite.http.api.loottracker.LootRecordType;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Times the type adapters against the reflection based Gson setup they replaced, over a corpus shaped like a real loot log.
+ * Only runs when requested, through {@code ./gradlew test -Pbenchmark --tests '*Benchmark'}
+ */
+public class LTRecordAdapterBenchmark
+{
+	private static final int RECORD_COUNT = 20000;
+	private static final int WARMUP_ROUNDS = 10;
+	private static final int MEASURED_ROUNDS = 10;
+
+	private static final String[] NPCS = {"Vorkath", "Zulrah", "General Graardor", "Chambers of Xeric", "Tempoross", "Clue Scroll (Hard)"};
+	private static final String[] ITEM_NAMES = {
+		"Coins", "Dragon bones", "Blue dragonhide", "Zulrah's scales", "Rune platelegs", "Dragon bolt tips", "Snapdragon seed",
+		"Grimy toadflax", "Manta ray", "Death rune", "Wrath rune", "Runite ore", "Vorkath's head", "Clue scroll (elite)",
+	};
+	private static final int[] ITEM_IDS = {995, 536, 1751, 12934, 1079, 21930, 5300, 3049, 391, 560, 21880, 451, 21907, 12073};
+	private static final long[] ITEM_PRICES = {1, 2331, 1790, 150, 38120, 1284, 46500, 1422, 1410, 190, 310, 11200, 58000, 0};
+
+	private final LootRecordDateAdapter dateAdapter = new LootRecordDateAdapter();
+	private final LTItemEntryAdapter itemAdapter = new LTItemEntryAdapter();
+	private final Gson adapterGson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, dateAdapter)
+		.registerTypeAdapter(LTItemEntry.class, itemAdapter)
+		.registerTypeAdapter(LTRecord.class, new LTRecordAdapter(dateAdapter, itemAdapter))
+		.create();
+	// Dates go through the same adapter so only the record and item entry handling differs
+	private final Gson reflectiveGson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, dateAdapter)
+		.registerTypeAdapter(LTItemEntry.class, (JsonDeserializer<LTItemEntry>) LTRecordAdapterTest::deserializeItemEntry)
+		.create();
+
+	private final List<LTRecord> records = new ArrayList<>();
+	private final List<String> lines = new ArrayList<>();
+
+	@Before
+	public void setUp()
+	{
+		Assume.assumeTrue(Boolean.getBoolean("lootlogger.benchmark"));
+
+		final Random random = new Random(42);
+		long time = 1709493242000L;
+		for (int i = 0; i < RECORD_COUNT; i++)
+		{
+			final List<LTItemEntry> drops = new ArrayList<>();
+			final int dropCount = 1 + random.nextInt(8);
+			for (int d = 0; d < dropCount; d++)
+			{
+				final int item = random.nextInt(ITEM_IDS.length);
+				final int quantity = item == 0 ? 1 + random.nextInt(50000) : 1 + random.nextInt(30);
+				final long price = ITEM_PRICES[item];
+				drops.add(new LTItemEntry(ITEM_NAMES[item], ITEM_IDS[item], quantity, price, LootRecordWriter.getHaPrice(ITEM_IDS[item]), price * quantity));
+			}
+
+			// Text dates are stored to the second
+			time += (30 + random.nextInt(300)) * 1000L;
+			final String npc = NPCS[i % NPCS.length];
+			final LTRecord record = new LTRecord(npc, 100 + npc.length(), i / NPCS.length + 1, LootRecordType.NPC, drops, new Date(time));
+			records.add(record);
+			lines.add(adapterGson.toJson(record));
+		}
+	}
+
+	@Test
+	public void benchmarkRead()
+	{
+		for (int i = 0; i < lines.size(); i++)
+		{
+			assertEquals(reflectiveGson.fromJson(lines.get(i), LTRecord.class), adapterGson.fromJson(lines.get(i), LTRecord.class));
+		}
+
+		report("read", gson -> read(gson, lines));
+	}
+
+	@Test
+	public void benchmarkWrite()
+	{
+		for (final LTRecord record : records)
+		{
+			assertEquals(reflectiveGson.toJson(record), adapterGson.toJson(record));
+		}
+
+		report("write", gson -> write(gson, records));
+	}
+
+	private static long read(final Gson gson, final List<String> lines)
+	{
+		long killCounts = 0;
+		for (final String line : lines)
+		{
+			killCounts += gson.fromJson(line, LTRecord.class).getKillCount();
+		}
+		return killCounts;
+	}
+
+	private static long write(final Gson gson, final List<LTRecord> records)
+	{
+		long length = 0;
+		for (final LTRecord record : records)
+		{
+			length += gson.toJson(record).length();
+		}
+		return length;
+	}
+
+	// Rounds alternate between both setups so neither is favoured by the JIT settling part way through
+	private void report(final String operation, final ToLongFunction<Gson> round)
+	{
+		long sink = 0;
+		for (int i = 0; i < WARMUP_ROUNDS; i++)
+		{
+			sink += round.applyAsLong(reflectiveGson);
+			sink += round.applyAsLong(adapterGson);
+		}
+
+		long reflectionBest = Long.MAX_VALUE;
+		long adapterBest = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_ROUNDS; i++)
+		{
+			long start = System.nanoTime();
+			sink += round.applyAsLong(reflectiveGson);
+			reflectionBest = Math.min(reflectionBest, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			sink += round.applyAsLong(adapterGson);
+			adapterBest = Math.min(adapterBest, System.nanoTime() - start);
+		}
+
+		System.out.printf("%s %d records: reflection %d ns/record, adapters %d ns/record (%.2fx), checksum %d%n", operation, RECORD_COUNT,
+			reflectionBest / RECORD_COUNT, adapterBest / RECORD_COUNT, (double) reflectionBest / adapterBest, sink);
+	}
+}
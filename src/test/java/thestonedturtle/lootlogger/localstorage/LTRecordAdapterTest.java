@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializer;
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the type adapters against the reflection based Gson setup that was used before them
+ */
+public class LTRecordAdapterTest
+{
+	private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa");
+
+	// Covers null and unknown values, escapes, field order and extra fields
+	private static final String[] RECORDS = {
+		"{\"name\":\"Vorkath\",\"level\":732,\"killCount\":51,\"type\":\"NPC\",\"drops\":[{\"name\":\"Dragon bones\",\"id\":536,\"quantity\":2,\"price\":2331},{\"name\":\"Coins\",\"id\":995,\"quantity\":35412,\"price\":1}],\"date\":\"" + format(1709493242000L) + "\"}",
+		"{\"name\":\"Barrows\",\"level\":-1,\"killCount\":-1,\"type\":\"EVENT\",\"drops\":[],\"date\":null}",
+		"{\"name\":\"Clue Scroll (Elite)\",\"level\":0,\"killCount\":7,\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":2147483647,\"price\":-9223372036854775808}]}",
+		"{\"name\":\"Tempoross\",\"level\":0,\"killCount\":12,\"type\":\"SOMETHING_NEW\",\"drops\":[{\"name\":\"Spirit flakes\",\"id\":25588,\"quantity\":24,\"price\":0}],\"date\":\"" + format(0L) + "\"}",
+		"{\"date\":\"" + format(1709424000000L) + "\",\"drops\":[{\"price\":5,\"quantity\":3,\"id\":1,\"name\":\"Tab \\\"quoted\\\" \\u00e9\\n\"}],\"killCount\":1,\"level\":2,\"type\":\"PLAYER\",\"name\":null}",
+		"{\"name\":\"Zulrah\",\"level\":725,\"killCount\":3,\"type\":\"NPC\",\"drops\":[{\"name\":\"Zulrah's scales\",\"id\":12934,\"quantity\":100,\"price\":150}],\"date\":\"" + format(1735689599000L) + "\",\"extra\":[1,{\"a\":null}]}",
+	};
+
+	private final LootRecordDateAdapter dateAdapter = new LootRecordDateAdapter();
+	private final LTItemEntryAdapter itemAdapter = new LTItemEntryAdapter();
+	private final Gson adapterGson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, dateAdapter)
+		.registerTypeAdapter(LTItemEntry.class, itemAdapter)
+		.registerTypeAdapter(LTRecord.class, new LTRecordAdapter(dateAdapter, itemAdapter))
+		.create();
+	// Records were read by reflection, with only the item entries and dates handled by hand
+	private final Gson reflectiveGson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, (JsonDeserializer<Date>) LTRecordAdapterTest::deserializeDate)
+		.registerTypeAdapter(Date.class, (JsonSerializer<Date>) (date, type, context) -> new JsonPrimitive(DATE_FORMAT.format(date)))
+		.registerTypeAdapter(LTItemEntry.class, (JsonDeserializer<LTItemEntry>) LTRecordAdapterTest::deserializeItemEntry)
+		.create();
+
+	private static String format(final long time)
+	{
+		return DATE_FORMAT.format(new Date(time));
+	}
+
+	private static Date deserializeDate(JsonElement json, Type type, JsonDeserializationContext context)
+	{
+		try
+		{
+			return DATE_FORMAT.parse(json.getAsString());
+		}
+		catch (ParseException e)
+		{
+			return null;
+		}
+	}
+
+	// The LTItemEntryDeserializer the adapters replaced
+	static LTItemEntry deserializeItemEntry(JsonElement jsonElement, Type type, JsonDeserializationContext context)
+		throws JsonParseException
+	{
+		JsonObject jsonObject = jsonElement.getAsJsonObject();
+		final String name = jsonObject.get("name").getAsString();
+		final int id = jsonObject.get("id").getAsInt();
+		int quantity = jsonObject.get("quantity").getAsInt();
+		long price = jsonObject.get("price").getAsLong();
+		int haPrice = LootRecordWriter.getHaPrice(id);
+		long totalPrice = price * quantity;
+		return new LTItemEntry(name, id, quantity, price, haPrice, totalPrice);
+	}
+
+	@Test
+	public void testReadMatchesReflection()
+	{
+		for (final String json : RECORDS)
+		{
+			assertEquals(json, reflectiveGson.fromJson(json, LTRecord.class), adapterGson.fromJson(json, LTRecord.class));
+		}
+	}
+
+	@Test
+	public void testWriteMatchesReflection()
+	{
+		for (final String json : RECORDS)
+		{
+			final LTRecord record = reflectiveGson.fromJson(json, LTRecord.class);
+			assertEquals(json, reflectiveGson.toJson(record), adapterGson.toJson(record));
+		}
+	}
+
+	@Test(expected = JsonParseException.class)
+	public void testMissingItemFieldIsRejected()
+	{
+		adapterGson.fromJson("{\"name\":\"Vorkath\",\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":1}]}", LTRecord.class);
+	}
+}
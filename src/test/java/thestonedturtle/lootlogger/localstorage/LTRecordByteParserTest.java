@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class LTRecordByteParserTest
+{
+	private static final String DATE = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa").format(new Date(1709493242000L));
+
+	private static final String[] RECORDS = {
+		"{\"name\":\"Vorkath\",\"level\":732,\"killCount\":51,\"type\":\"NPC\",\"drops\":[{\"name\":\"Dragon bones\",\"id\":536,\"quantity\":2,\"price\":2331},{\"name\":\"Coins\",\"id\":995,\"quantity\":35412,\"price\":1}],\"date\":\"" + DATE + "\"}",
+		"{\"name\":\"Vorkath\",\"level\":732,\"killCount\":52,\"type\":\"NPC\",\"drops\":[],\"date\":1709493391123}",
+		"{\"name\":\"Barrows\",\"level\":-1,\"killCount\":-1,\"type\":null,\"drops\":null,\"date\":null}",
+		"{\"name\":\"Tempoross\",\"level\":0,\"killCount\":12,\"type\":\"SOMETHING_NEW\",\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":-2147483648,\"price\":-999999999999999999}],\"date\":-1}",
+		"{\"date\":\"" + DATE.replace(" AM", "\u202FAM").replace(" PM", "\u202FPM") + "\",\"drops\":[{\"price\":5,\"quantity\":3,\"id\":1,\"name\":\"Tab \\\"quoted\\\" \\\\ \\/ \\u00e9\\n\\t\"}],\"killCount\":1,\"level\":2,\"name\":null}",
+		" { \"name\" : \"Clue Scroll (\u00c9lite)\" ,\t\"level\" : 0 , \"killCount\" : 7 , \"drops\" : [ { \"name\" : \"Caf\u00e9 \u2728 \uD83D\uDC8E\" , \"id\" : 2 , \"quantity\" : 1 , \"price\" : 0 } ] } ",
+		"{}",
+	};
+
+	// Layouts the parser leaves to Gson
+	private static final String[] UNSUPPORTED = {
+		"{\"name\":\"Vorkath\",\"extra\":1}",
+		"{\"name\":\"Vorkath\",\"level\":1.5}",
+		"{\"name\":\"Vorkath\",\"level\":1e3}",
+		"{\"name\":\"Vorkath\",\"level\":2147483648}",
+		"{\"name\":\"Vorkath\",\"date\":1234567890123456789}",
+		"{\"name\":\"Vorkath\",\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":1}]}",
+		"{\"name\":\"Vorkath\",\"drops\":[{\"name\":\"Coins\",\"id\":995,\"quantity\":1,\"price\":1,\"haPrice\":1}]}",
+		"{\"name\":\"Vorkath\\x\"}",
+		"{\"name\":\"Vorkath\"} trailing",
+		"{\"name\":\"Vorkath\"",
+		"{\"name\":nul}",
+	};
+
+	private final LootRecordDateAdapter dateAdapter = new LootRecordDateAdapter();
+	private final LTItemEntryAdapter itemAdapter = new LTItemEntryAdapter();
+	private final Gson gson = new GsonBuilder()
+		.registerTypeAdapter(Date.class, dateAdapter)
+		.registerTypeAdapter(LTItemEntry.class, itemAdapter)
+		.registerTypeAdapter(LTRecord.class, new LTRecordAdapter(dateAdapter, itemAdapter))
+		.create();
+	private final LTRecordByteParser parser = new LTRecordByteParser(dateAdapter);
+
+	@Test
+	public void testParseMatchesGson()
+	{
+		for (final String json : RECORDS)
+		{
+			// Files are written and read in the platform charset
+			final byte[] bytes = json.getBytes(Charset.defaultCharset());
+			final LTRecord record = parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+			assertNotNull(json, record);
+			assertEquals(json, gson.fromJson(new String(bytes, Charset.defaultCharset()), LTRecord.class), record);
+		}
+	}
+
+	@Test
+	public void testParseWithinLargerBuffer()
+	{
+		// Lines are parsed in place from the buffer the file was read into
+		final byte[] first = RECORDS[0].getBytes(Charset.defaultCharset());
+		final byte[] second = RECORDS[1].getBytes(Charset.defaultCharset());
+		final ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length + 2);
+		buffer.put(first).put((byte) '\n').put(second).put((byte) '\n');
+
+		assertEquals(gson.fromJson(RECORDS[0], LTRecord.class), parser.parse(buffer, 0, first.length));
+		assertEquals(gson.fromJson(RECORDS[1], LTRecord.class), parser.parse(buffer, first.length + 1, first.length + 1 + second.length));
+		assertEquals(buffer.capacity(), buffer.position());
+	}
+
+	@Test
+	public void testUnsupportedLayoutIsNull()
+	{
+		for (final String json : UNSUPPORTED)
+		{
+			assertNull(json, parse(json));
+		}
+	}
+
+	private LTRecord parse(final String json)
+	{
+		final byte[] bytes = json.getBytes(Charset.defaultCharset());
+		return parser.parse(ByteBuffer.wrap(bytes), 0, bytes.length);
+	}
+}
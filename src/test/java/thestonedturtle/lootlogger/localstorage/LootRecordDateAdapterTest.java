@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class LootRecordDateAdapterTest
+{
+	private static final long[] TIMES = {
+		0L, 1709493242000L, 1709424000000L, 1709467200000L, 1709510399000L, 1735689599000L
+	};
+
+	private final LootRecordDateAdapter adapter = new LootRecordDateAdapter();
+
+	@Test
+	public void testParseMatchesSimpleDateFormat()
+	{
+		// The format the records were originally written with
+		final SimpleDateFormat format = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa");
+		for (final long time : TIMES)
+		{
+			final String text = format.format(new Date(time));
+			assertEquals(text, new Date(time), adapter.parse(text));
+			// Java 20+ writes a narrow no-break space before the AM/PM marker
+			assertEquals(text, new Date(time), adapter.parse(text.replace(" AM", "\u202FAM").replace(" PM", "\u202FPM")));
+		}
+	}
+
+	@Test
+	public void testParseUsesCachedDay()
+	{
+		final SimpleDateFormat format = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa");
+		final long midnight = 1709424000000L;
+		// Every hour of the same day, the date part is only parsed for the first one
+		for (int hour = 0; hour < 24; hour++)
+		{
+			final Date date = new Date(midnight + hour * 3600000L + 61000L);
+			assertEquals(date, adapter.parse(format.format(date)));
+		}
+	}
+
+	@Test
+	public void testInvalidDateIsNull()
+	{
+		assertNull(adapter.parse("not a date"));
+		assertNull(adapter.parse(""));
+	}
+
+	@Test
+	public void testReadsTextNumberAndNull() throws IOException
+	{
+		final String text = new SimpleDateFormat("MMM d, yyyy, h:mm:ss aaa").format(new Date(TIMES[1]));
+		assertEquals(new Date(TIMES[1]), read("\"" + text + "\""));
+		assertEquals(new Date(1709493391123L), read("1709493391123"));
+		assertEquals(new Date(-1L), read("-1"));
+		assertNull(read("null"));
+	}
+
+	@Test
+	public void testWriteRoundTrip() throws IOException
+	{
+		for (final long time : TIMES)
+		{
+			final Date date = new Date(time);
+			adapter.setWriteEpochMillis(false);
+			assertEquals(date, read(write(date)));
+
+			adapter.setWriteEpochMillis(true);
+			assertEquals(String.valueOf(time), write(date));
+			assertEquals(date, read(write(date)));
+		}
+	}
+
+	private Date read(final String json) throws IOException
+	{
+		final JsonReader reader = new JsonReader(new StringReader(json));
+		reader.setLenient(true);
+		return adapter.read(reader);
+	}
+
+	private String write(final Date date) throws IOException
+	{
+		final StringWriter out = new StringWriter();
+		final JsonWriter writer = new JsonWriter(out);
+		writer.setLenient(true);
+		adapter.write(writer, date);
+		writer.flush();
+		return out.toString();
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import net.runelite.http.api.loottracker.LootRecordType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LootRecordWriteQueueTest
+{
+	private static final int FLUSH_THRESHOLD = 32;
+	private static final LTRecord RECORD = new LTRecord("Vorkath", 732, 1, LootRecordType.NPC, Collections.emptyList(), new Date());
+
+	private File directory;
+	private LootRecordWriteQueue queue;
+	private CountDownLatch writing;
+	private CountDownLatch unblock;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		directory = Files.createTempDirectory("lootlogger").toFile();
+		writing = new CountDownLatch(1);
+		unblock = new CountDownLatch(0);
+		queue = new LootRecordWriteQueue(r -> "{}\n".getBytes(StandardCharsets.UTF_8), (file, size, lastModified) ->
+		{
+			writing.countDown();
+			try
+			{
+				unblock.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		unblock.countDown();
+		queue.stop();
+		try (final Stream<File> files = Files.walk(directory.toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile))
+		{
+			files.forEach(File::delete);
+		}
+	}
+
+	private static int countLines(final File file) throws IOException
+	{
+		return file.exists() ? Files.readAllLines(file.toPath()).size() : 0;
+	}
+
+	@Test
+	public void testRejectsRecordsOnceFull() throws Exception
+	{
+		final File file = new File(directory, "Vorkath.log");
+		unblock = new CountDownLatch(1);
+
+		// Enough records to start a flush, which then blocks until the test lets it finish
+		for (int i = 0; i < FLUSH_THRESHOLD; i++)
+		{
+			assertTrue(queue.enqueue(file, RECORD));
+		}
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+		for (int i = 0; i < LootRecordWriteQueue.MAX_QUEUED_RECORDS; i++)
+		{
+			assertTrue(queue.enqueue(file, RECORD));
+		}
+		assertFalse(queue.enqueue(file, RECORD));
+		assertEquals(LootRecordWriteQueue.MAX_QUEUED_RECORDS, queue.getQueueDepth());
+
+		unblock.countDown();
+		queue.flush();
+		assertEquals(FLUSH_THRESHOLD + LootRecordWriteQueue.MAX_QUEUED_RECORDS, countLines(file));
+
+		// Records are accepted again once the queue has been drained
+		assertTrue(queue.enqueue(file, RECORD));
+	}
+
+	@Test
+	public void testHeldRecordsFollowTheRedirect() throws IOException
+	{
+		final File source = new File(directory, "Vorkath.log");
+		final File target = new File(directory, "Vorkath-converted.log");
+		final File other = new File(directory, "Zulrah.log");
+
+		queue.enqueue(source, RECORD);
+		queue.hold(source);
+		assertEquals(1, countLines(source));
+
+		queue.enqueue(source, RECORD);
+		queue.enqueue(source, RECORD);
+		queue.enqueue(other, RECORD);
+		queue.flush();
+
+		// Only the held file is kept back
+		assertEquals(1, countLines(source));
+		assertEquals(1, countLines(other));
+
+		queue.release(source, f -> target);
+		queue.flush();
+		assertEquals(1, countLines(source));
+		assertEquals(2, countLines(target));
+	}
+
+	@Test
+	public void testReleaseWithoutRedirectKeepsFile() throws IOException
+	{
+		final File file = new File(directory, "Vorkath.log");
+		queue.hold(null);
+		queue.enqueue(file, RECORD);
+		queue.flush();
+		assertFalse(file.exists());
+
+		queue.release(null, null);
+		queue.flush();
+		assertEquals(1, countLines(file));
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026, TheStonedTurtle <https://github.com/TheStonedTurtle>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package thestonedturtle.lootlogger.localstorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import net.runelite.http.api.loottracker.LootRecordType;
+import thestonedturtle.lootlogger.LootStorageFormat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LootRecordWriterTest
+{
+	private static final String NPC = "Vorkath";
+	// Text dates are stored to the second
+	private static final long START_TIME = 1709493242000L;
+
+	private File directory;
+	private LootRecordWriter writer;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		directory = Files.createTempDirectory("lootlogger").toFile();
+		writer = new LootRecordWriter(directory);
+		writer.setPlayerUsername("test");
+	}
+
+	@After
+	public void tearDown() throws IOException
+	{
+		writer.shutDown();
+		try (final Stream<File> files = Files.walk(directory.toPath()).sorted(Comparator.reverseOrder()).map(Path::toFile))
+		{
+			files.forEach(File::delete);
+		}
+	}
+
+	private static LTRecord record(final int killCount, final int dropCount)
+	{
+		final List<LTItemEntry> drops = new ArrayList<>();
+		for (int i = 0; i < dropCount; i++)
+		{
+			final int id = 500 + i;
+			final long price = i * 37L;
+			drops.add(new LTItemEntry("Item \"" + i + "\"", id, i + 1, price, LootRecordWriter.getHaPrice(id), price * (i + 1)));
+		}
+
+		return new LTRecord(NPC, 732, killCount, LootRecordType.NPC, drops, new Date(START_TIME + killCount * 1000L));
+	}
+
+	private List<LTRecord> addRecords(final int from, final int to)
+	{
+		final List<LTRecord> records = new ArrayList<>();
+		for (int kc = from; kc < to; kc++)
+		{
+			// One line far longer than the initial read buffer
+			final LTRecord record = record(kc, kc == from + 5 ? 3000 : kc % 4);
+			records.add(record);
+			writer.addLootTrackerRecord(record);
+		}
+
+		return records;
+	}
+
+	@Test
+	public void testReadsInChunksAndWhole()
+	{
+		final List<LTRecord> records = addRecords(0, 200);
+
+		writer.setRawParseThreshold(0);
+		assertEquals(records, new ArrayList<>(writer.loadLootTrackerRecords(LootRecordType.NPC, NPC)));
+
+		writer.setRawParseThreshold(Long.MAX_VALUE);
+		assertEquals(records, new ArrayList<>(writer.loadLootTrackerRecords(LootRecordType.NPC, NPC)));
+	}
+
+	@Test
+	public void testReadsFromOffset()
+	{
+		addRecords(0, 20);
+		final List<LTRecord> read = new ArrayList<>();
+		final long offset = writer.loadLootTrackerRecords(LootRecordType.NPC, NPC, 0, read::add);
+		assertEquals(20, read.size());
+
+		final List<LTRecord> appended = addRecords(20, 30);
+		for (final long threshold : new long[]{0, Long.MAX_VALUE})
+		{
+			writer.setRawParseThreshold(threshold);
+			final List<LTRecord> tail = new ArrayList<>();
+			writer.loadLootTrackerRecords(LootRecordType.NPC, NPC, offset, tail::add);
+			assertEquals(appended, tail);
+		}
+	}
+
+	@Test
+	public void testReadsBinaryFromOffset()
+	{
+		writer.setStorageFormat(LootStorageFormat.BINARY);
+		final List<LTRecord> records = addRecords(0, 20);
+		final List<LTRecord> read = new ArrayList<>();
+		final long offset = writer.loadLootTrackerRecords(LootRecordType.NPC, NPC, 0, read::add);
+		assertEquals(records, read);
+
+		// A new writer has to load the string table from the file before appending to it
+		writer.shutDown();
+		writer = new LootRecordWriter(directory);
+		writer.setPlayerUsername("test");
+		writer.setStorageFormat(LootStorageFormat.BINARY);
+
+		final List<LTRecord> appended = addRecords(20, 30);
+		final List<LTRecord> tail = new ArrayList<>();
+		writer.loadLootTrackerRecords(LootRecordType.NPC, NPC, offset, tail::add);
+		assertEquals(appended, tail);
+	}
+
+	// Reads every record and stores a summary of them, returning the summarized offset
+	private long storeSummary()
+	{
+		final LootRecordWriter.ResolvedLootFile resolved = writer.resolveLootFile(LootRecordType.NPC, NPC);
+		final List<LTRecord> read = new ArrayList<>();
+		final long offset = writer.loadLootTrackerRecords(resolved, 0, read::add);
+		final LTSummary summary = new LTSummary(LootRecordType.NPC, read.size(), read.get(read.size() - 1).getKillCount(), Collections.emptyList());
+		assertTrue(writer.writeLootTrackerSummary(LootRecordType.NPC, NPC, resolved, summary, offset));
+		return offset;
+	}
+
+	@Nullable
+	private LTSummary loadSummary()
+	{
+		return writer.loadLootTrackerSummary(LootRecordType.NPC, NPC, writer.resolveLootFile(LootRecordType.NPC, NPC));
+	}
+
+	private File lootFile()
+	{
+		return writer.resolveLootFile(LootRecordType.NPC, NPC).getFile();
+	}
+
+	@Test
+	public void testSummaryStaysValidAfterAppend()
+	{
+		addRecords(0, 20);
+		final long offset = storeSummary();
+
+		final List<LTRecord> appended = addRecords(20, 25);
+		final LTSummary summary = loadSummary();
+		assertNotNull(summary);
+		assertEquals(offset, summary.getOffset());
+		assertEquals(20, summary.getRecordCount());
+
+		final List<LTRecord> tail = new ArrayList<>();
+		writer.loadLootTrackerRecords(LootRecordType.NPC, NPC, summary.getOffset(), tail::add);
+		assertEquals(appended, tail);
+	}
+
+	@Test
+	public void testSummaryDiscardedWhenSummarizedBytesChange() throws IOException
+	{
+		addRecords(0, 20);
+		final long offset = storeSummary();
+
+		final File file = lootFile();
+		try (final RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+		{
+			raf.seek(offset - 10);
+			final byte b = raf.readByte();
+			raf.seek(offset - 10);
+			raf.writeByte(b == '1' ? '2' : '1');
+		}
+		// Only the checksum can tell the file apart
+		file.setLastModified(file.lastModified() + 5000);
+
+		assertNull(loadSummary());
+	}
+
+	@Test
+	public void testSummaryDiscardedWhenFileShrinks() throws IOException
+	{
+		addRecords(0, 20);
+		final long offset = storeSummary();
+
+		try (final RandomAccessFile raf = new RandomAccessFile(lootFile(), "rw"))
+		{
+			raf.setLength(offset - 1);
+		}
+
+		assertNull(loadSummary());
+	}
+
+	@Test
+	public void testSummaryDeletedWhenFileIsRewritten()
+	{
+		final List<LTRecord> records = addRecords(0, 20);
+		storeSummary();
+		assertNotNull(loadSummary());
+
+		assertTrue(writer.writeLootTrackerFile(LootRecordType.NPC, NPC, records.subList(0, 10)));
+		assertNull(loadSummary());
+	}
+
+	@Test
+	public void testSummaryNotStoredForReplacedFile()
+	{
+		final List<LTRecord> records = addRecords(0, 20);
+		final LootRecordWriter.ResolvedLootFile resolved = writer.resolveLootFile(LootRecordType.NPC, NPC);
+		final Collection<LTRecord> read = new ArrayList<>();
+		final long offset = writer.loadLootTrackerRecords(resolved, 0, read::add);
+
+		// Rewritten with the same length so only the generation can tell it was replaced
+		assertTrue(writer.writeLootTrackerFile(LootRecordType.NPC, NPC, records));
+		final LTSummary summary = new LTSummary(LootRecordType.NPC, read.size(), 19, Collections.emptyList());
+		assertFalse(writer.writeLootTrackerSummary(LootRecordType.NPC, NPC, resolved, summary, offset));
+		assertNull(loadSummary());
+	}
+}